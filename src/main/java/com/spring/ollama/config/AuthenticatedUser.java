@@ -0,0 +1,15 @@
+package com.spring.ollama.config;
+
+import java.security.Principal;
+
+/**
+ * Principal set by JwtAuthenticationFilter: the token subject (email) plus the user id claim
+ * that user-scoped routes are matched against
+ */
+public record AuthenticatedUser(String email, String userId) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,10 +1,12 @@
 package com.spring.ollama.config;
 
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,10 +16,13 @@ public class ChatClientConfig {
     private static final Logger logger = LoggerFactory.getLogger(ChatClientConfig.class);
 
     @Bean
-    public ChatClient chatClient(OllamaChatModel ollamaChatModel) {
-        logger.info("Initializing ChatClient bean with OllamaChatModel");
+    public ChatClient chatClient(ChatModel chatModel, MeterRegistry meterRegistry,
+                                 ObservationRegistry observationRegistry) {
+        logger.info("Initializing ChatClient bean with the routing ChatModel");
         try {
-            ChatClient client = ChatClient.builder(ollamaChatModel).build();
+            ChatClient client = ChatClient.builder(chatModel, observationRegistry, null)
+                    .defaultAdvisors(new LlmMetricsAdvisor(meterRegistry, "chat"))
+                    .build();
             logger.info("ChatClient bean created successfully");
             return client;
         } catch (Exception e) {
@@ -1,9 +1,11 @@
 package com.spring.ollama.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -61,12 +63,14 @@ public class FitnessChatClientConfig {
             """;
 
     @Bean
-    public ChatClient fitnessChatClient(OllamaChatModel ollamaChatModel) {
+    public ChatClient fitnessChatClient(ChatModel chatModel, MeterRegistry meterRegistry,
+                                        ObservationRegistry observationRegistry) {
         logger.info("Initializing Fitness-specialized ChatClient with system prompt");
 
         try {
-            ChatClient client = ChatClient.builder(ollamaChatModel)
+            ChatClient client = ChatClient.builder(chatModel, observationRegistry, null)
                     .defaultSystem(FITNESS_SYSTEM_PROMPT)
+                    .defaultAdvisors(new LlmMetricsAdvisor(meterRegistry, "fitness"))
                     .build();
 
             logger.info("Fitness ChatClient created successfully with domain restrictions");
@@ -0,0 +1,84 @@
+package com.spring.ollama.config;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collector-free span export: keeps the most recent finished spans in memory so span structure
+ * (generate -> parse -> PDF -> delivery) can be inspected or asserted without running a backend.
+ * Spring Boot adds every SpanExporter bean to the OpenTelemetry SDK's span processor.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracing.in-memory-exporter.enabled", havingValue = "true")
+public class InMemorySpanExporterConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemorySpanExporterConfig.class);
+
+    @Bean
+    public InMemorySpanExporter inMemorySpanExporter(@Value("${tracing.in-memory-exporter.max-spans:1000}") int maxSpans) {
+        logger.info("In-memory span exporter enabled, keeping the last {} spans", maxSpans);
+        return new InMemorySpanExporter(maxSpans);
+    }
+
+    public static class InMemorySpanExporter implements SpanExporter {
+
+        private final int maxSpans;
+        private final ConcurrentLinkedDeque<SpanData> spans = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        public InMemorySpanExporter(int maxSpans) {
+            this.maxSpans = maxSpans;
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> batch) {
+            for (SpanData span : batch) {
+                spans.addLast(span);
+                if (size.incrementAndGet() > maxSpans && spans.pollFirst() != null) {
+                    size.decrementAndGet();
+                }
+            }
+            return CompletableResultCode.ofSuccess();
+        }
+
+        /**
+         * Finished spans, oldest first
+         */
+        public List<SpanData> getFinishedSpans() {
+            return new ArrayList<>(spans);
+        }
+
+        public List<SpanData> getFinishedSpans(String traceId) {
+            return spans.stream().filter(span -> span.getTraceId().equals(traceId)).toList();
+        }
+
+        public void reset() {
+            spans.clear();
+            size.set(0);
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            reset();
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
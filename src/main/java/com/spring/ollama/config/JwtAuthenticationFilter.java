@@ -0,0 +1,67 @@
+package com.spring.ollama.config;
+
+import com.spring.ollama.service.JwtService;
+import com.spring.ollama.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Authenticates requests carrying "Authorization: Bearer <jwt>". The token is verified
+ * at most once per request (and once per token while cached in JwtService); no database
+ * lookup is involved - revocation is an in-memory Bloom filter probe in TokenRevocationService.
+ * Requests without a valid, unrevoked token continue unauthenticated and are
+ * left to the authorization rules in SecurityConfig, which reject them on user-scoped routes.
+ *
+ * Registered only inside the security filter chain - deliberately not a @Component,
+ * so it is not also added to the servlet filter chain.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final List<SimpleGrantedAuthority> USER_AUTHORITIES =
+            List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+
+    public JwtAuthenticationFilter(JwtService jwtService, TokenRevocationService tokenRevocationService) {
+        this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        if (header != null && header.startsWith(BEARER_PREFIX)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Optional<Claims> claims = jwtService.parseVerifiedClaims(header.substring(BEARER_PREFIX.length()));
+            if (claims.isPresent() && claims.get().getSubject() != null
+                    && !tokenRevocationService.isRevoked(claims.get())) {
+                AuthenticatedUser user = new AuthenticatedUser(claims.get().getSubject(),
+                        claims.get().get(JwtService.USER_ID_CLAIM, String.class));
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(user, null, USER_AUTHORITIES);
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,207 @@
+package com.spring.ollama.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ChatClient advisor that records every LLM call:
+ *   llm.request                  - total latency histogram, tagged client/type/outcome/error
+ *   llm.time.to.first.token      - first streamed chunk, or Ollama load + prompt-eval time for blocking calls
+ *   llm.tokens{kind}             - prompt and completion tokens from the response usage
+ *   llm.tokens.per.second        - completion tokens over Ollama's eval duration
+ *   llm.requests.in.flight       - calls currently waiting on the model
+ *
+ * Callers name the prompt type with {@code .advisors(a -> a.param(LlmMetricsAdvisor.PROMPT_TYPE, "..."))}.
+ */
+public class LlmMetricsAdvisor implements CallAdvisor, StreamAdvisor {
+
+    public static final String PROMPT_TYPE = "llm.prompt-type";
+
+    // Keys Ollama's chat model puts on ChatResponseMetadata
+    private static final String LOAD_DURATION = "load-duration";
+    private static final String PROMPT_EVAL_DURATION = "prompt-eval-duration";
+    private static final String EVAL_DURATION = "eval-duration";
+
+    private final MeterRegistry meterRegistry;
+    private final String clientName;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LlmMetricsAdvisor(MeterRegistry meterRegistry, String clientName) {
+        this.meterRegistry = meterRegistry;
+        this.clientName = clientName;
+        Gauge.builder("llm.requests.in.flight", inFlight, AtomicInteger::get)
+                .tag("client", clientName)
+                .description("LLM calls waiting on the model")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        String type = promptType(request);
+        long start = System.nanoTime();
+        inFlight.incrementAndGet();
+        try {
+            ChatClientResponse response = chain.nextCall(request);
+            ChatResponse chatResponse = response.chatResponse();
+            recordLatency(type, start, null);
+            recordUsage(type, chatResponse);
+            recordOllamaFirstToken(type, chatResponse);
+            return response;
+        } catch (RuntimeException e) {
+            recordLatency(type, start, e);
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        String type = promptType(request);
+        AtomicBoolean firstSeen = new AtomicBoolean();
+        AtomicReference<ChatResponse> last = new AtomicReference<>();
+        AtomicReference<Long> start = new AtomicReference<>();
+
+        return chain.nextStream(request)
+                .doOnSubscribe(subscription -> {
+                    start.set(System.nanoTime());
+                    inFlight.incrementAndGet();
+                })
+                .doOnNext(response -> {
+                    if (firstSeen.compareAndSet(false, true)) {
+                        timer("llm.time.to.first.token", type).record(System.nanoTime() - start.get(), TimeUnit.NANOSECONDS);
+                    }
+                    if (response.chatResponse() != null) {
+                        last.set(response.chatResponse());
+                    }
+                })
+                .doOnComplete(() -> {
+                    recordLatency(type, start.get(), null);
+                    recordUsage(type, last.get());
+                })
+                .doOnError(e -> recordLatency(type, start.get(), e))
+                .doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    @Override
+    public String getName() {
+        return "LlmMetricsAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        // Outermost, so the timings include every other advisor
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private String promptType(ChatClientRequest request) {
+        Object type = request.context().get(PROMPT_TYPE);
+        return type != null ? type.toString() : "unspecified";
+    }
+
+    private void recordLatency(String type, long startNanos, Throwable error) {
+        Timer.builder("llm.request")
+                .description("LLM call latency")
+                .tag("client", clientName)
+                .tag("type", type)
+                .tag("outcome", error == null ? "success" : "error")
+                .tag("error", error == null ? "none" : error.getClass().getSimpleName())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordUsage(String type, ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getMetadata() == null) {
+            return;
+        }
+        ChatResponseMetadata metadata = chatResponse.getMetadata();
+
+        Usage usage = metadata.getUsage();
+        Integer completionTokens = null;
+        if (usage != null) {
+            Integer promptTokens = usage.getPromptTokens();
+            completionTokens = usage.getCompletionTokens();
+            if (promptTokens != null) {
+                tokens(type, "prompt").increment(promptTokens);
+            }
+            if (completionTokens != null) {
+                tokens(type, "completion").increment(completionTokens);
+            }
+        }
+
+        Duration evalDuration = duration(metadata.get(EVAL_DURATION));
+        if (completionTokens != null && completionTokens > 0 && evalDuration != null && !evalDuration.isZero()) {
+            DistributionSummary.builder("llm.tokens.per.second")
+                    .description("Completion tokens generated per second of model eval time")
+                    .tag("client", clientName)
+                    .tag("type", type)
+                    .register(meterRegistry)
+                    .record(completionTokens * 1_000_000_000.0 / evalDuration.toNanos());
+        }
+    }
+
+    /**
+     * A blocking call has no first chunk; Ollama reports how long it spent loading the model
+     * and evaluating the prompt before generating, which is the same quantity
+     */
+    private void recordOllamaFirstToken(String type, ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getMetadata() == null) {
+            return;
+        }
+        Duration load = duration(chatResponse.getMetadata().get(LOAD_DURATION));
+        Duration promptEval = duration(chatResponse.getMetadata().get(PROMPT_EVAL_DURATION));
+        if (load == null && promptEval == null) {
+            return;
+        }
+        Duration firstToken = (load != null ? load : Duration.ZERO).plus(promptEval != null ? promptEval : Duration.ZERO);
+        timer("llm.time.to.first.token", type).record(firstToken);
+    }
+
+    private Timer timer(String name, String type) {
+        return Timer.builder(name)
+                .tag("client", clientName)
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter tokens(String type, String kind) {
+        return Counter.builder("llm.tokens")
+                .description("Tokens reported by the model")
+                .tag("client", clientName)
+                .tag("type", type)
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    private static Duration duration(Object value) {
+        if (value instanceof Duration duration) {
+            return duration;
+        }
+        if (value instanceof Number nanos) {
+            return Duration.ofNanos(nanos.longValue());
+        }
+        return null;
+    }
+}
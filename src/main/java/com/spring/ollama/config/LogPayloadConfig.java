@@ -0,0 +1,30 @@
+package com.spring.ollama.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies the log.payload.* properties to the static LogPayloads helper
+ */
+@Configuration
+public class LogPayloadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogPayloadConfig.class);
+
+    // Characters kept in a preview
+    @Value("${log.payload.max-chars:200}")
+    private int maxChars;
+
+    // Fraction of calls for which LogPayloads.sampled() is true
+    @Value("${log.payload.sample-rate:0.01}")
+    private double sampleRate;
+
+    @PostConstruct
+    public void applyLimits() {
+        LogPayloads.configure(maxChars, sampleRate);
+        logger.info("Log payload previews: {} chars, sample rate: {}", maxChars, sampleRate);
+    }
+}
@@ -0,0 +1,54 @@
+package com.spring.ollama.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Helpers for logging LLM prompts/responses and request objects without writing whole payloads.
+ * preview() is lazy - the value is only converted and truncated if the log event is actually
+ * written, so a disabled level costs nothing beyond the wrapper allocation.
+ *
+ * Limits come from log.payload.max-chars and log.payload.sample-rate, applied at startup by
+ * LogPayloadConfig; the defaults below hold until then.
+ */
+public final class LogPayloads {
+
+    private static volatile int maxChars = 200;
+    private static volatile double sampleRate = 0.01;
+
+    private LogPayloads() {
+    }
+
+    static void configure(int maxChars, double sampleRate) {
+        LogPayloads.maxChars = Math.max(1, maxChars);
+        LogPayloads.sampleRate = sampleRate;
+    }
+
+    /**
+     * Truncated, single-line view of a payload with its original length
+     */
+    public static Object preview(Object payload) {
+        return new Preview(payload);
+    }
+
+    /**
+     * True for roughly log.payload.sample-rate of calls - gate full-payload logging with it
+     */
+    public static boolean sampled() {
+        double rate = sampleRate;
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private record Preview(Object payload) {
+        @Override
+        public String toString() {
+            if (payload == null) {
+                return "null";
+            }
+            int maxChars = LogPayloads.maxChars;
+            String text = payload.toString();
+            String head = text.length() > maxChars ? text.substring(0, maxChars) : text;
+            head = head.replace('\n', ' ').replace('\r', ' ');
+            return text.length() > maxChars ? head + "... (" + text.length() + " chars)" : head;
+        }
+    }
+}
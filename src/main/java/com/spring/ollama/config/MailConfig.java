@@ -0,0 +1,38 @@
+package com.spring.ollama.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class MailConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailConfig.class);
+
+    @Value("${mail.batch.max-connections:2}")
+    private int maxConnections;
+
+    /**
+     * Each worker holds at most one SMTP transport while it sends a chunk,
+     * so the pool size is the upper bound on concurrent SMTP connections.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mailBatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConnections);
+        executor.setMaxPoolSize(maxConnections);
+        executor.setQueueCapacity(1_000);
+        executor.setThreadNamePrefix("mail-batch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator()); // carry the current trace context to worker threads
+        executor.initialize();
+
+        logger.info("Mail batch executor initialized with {} SMTP connections", maxConnections);
+        return executor;
+    }
+}
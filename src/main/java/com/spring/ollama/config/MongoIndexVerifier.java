@@ -0,0 +1,221 @@
+package com.spring.ollama.config;
+
+import com.spring.ollama.entity.DailyRoutine;
+import com.spring.ollama.entity.DaySummary;
+import com.spring.ollama.entity.MealPlan;
+import com.spring.ollama.entity.ProgressRollup;
+import com.spring.ollama.entity.RefreshToken;
+import com.spring.ollama.entity.RevokedToken;
+import com.spring.ollama.entity.User;
+import com.spring.ollama.entity.WorkoutPlan;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Startup check that every index declared on the entities exists in Mongo, and (opt-in) that
+ * each repository query shape is planned on an index - no COLLSCAN and no in-memory SORT.
+ * MongoIndexVerifierTest runs the same query-shape assertions against a test database.
+ */
+@Component
+public class MongoIndexVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexVerifier.class);
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(
+            User.class, DailyRoutine.class, DaySummary.class, WorkoutPlan.class, MealPlan.class,
+            ProgressRollup.class, RefreshToken.class, RevokedToken.class);
+
+    private static final String PROBE = "index-probe";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${mongo.indexes.verify-on-startup:true}")
+    private boolean verifyOnStartup;
+
+    @Value("${mongo.indexes.create-missing:true}")
+    private boolean createMissing;
+
+    @Value("${mongo.indexes.explain-on-startup:false}")
+    private boolean explainOnStartup;
+
+    public MongoIndexVerifier(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        if (!verifyOnStartup) {
+            return;
+        }
+
+        try {
+            int missing = verifyDeclaredIndexes();
+            List<String> unindexed = explainOnStartup ? findUnindexedQueryShapes() : List.of();
+
+            if (missing == 0 && unindexed.isEmpty()) {
+                logger.info("Mongo index verification passed for {} collections", INDEXED_ENTITIES.size());
+            } else {
+                unindexed.forEach(shape -> logger.warn("Query shape is not index-covered: {}", shape));
+            }
+        } catch (Exception e) {
+            logger.error("Mongo index verification failed", e);
+        }
+    }
+
+    /**
+     * Check every indexed entity, returning how many declared indexes were missing
+     */
+    int verifyDeclaredIndexes() {
+        int missing = 0;
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            missing += verifyDeclaredIndexes(entity);
+        }
+        return missing;
+    }
+
+    /**
+     * Compare the indexes resolved from the entity annotations against the collection
+     */
+    private int verifyDeclaredIndexes(Class<?> entity) {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        IndexOperations indexOps = mongoTemplate.indexOps(entity);
+
+        Set<String> existing = indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+
+        int missing = 0;
+        for (IndexDefinition definition : resolver.resolveIndexFor(entity)) {
+            Object name = definition.getIndexOptions().get("name");
+            if (name != null && existing.contains(name.toString())) {
+                continue;
+            }
+
+            missing++;
+            if (createMissing) {
+                logger.warn("Creating missing index {} on {}", definition.getIndexKeys(), entity.getSimpleName());
+                indexOps.ensureIndex(definition);
+            } else {
+                logger.warn("Missing index {} on {}", definition.getIndexKeys(), entity.getSimpleName());
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Explain each repository query shape and report the ones whose winning plan scans or sorts in memory
+     */
+    List<String> findUnindexedQueryShapes() {
+        Date from = new Date(0);
+        Date to = new Date();
+        List<String> unindexed = new ArrayList<>();
+
+        // UserRepository
+        check(unindexed, "users", new Document("email", PROBE), null);
+        check(unindexed, "users", new Document("username", PROBE), null);
+        check(unindexed, "users", new Document("$or", List.of(
+                new Document("email", PROBE), new Document("username", PROBE))), null);
+
+        // DailyRoutineRepository
+        check(unindexed, "daily_routines", new Document("userId", PROBE), new Document("dayNumber", 1));
+        check(unindexed, "daily_routines", new Document("userId", PROBE).append("dayNumber", 1), null);
+        check(unindexed, "daily_routines", new Document("userId", PROBE).append("isCompleted", true), null);
+        check(unindexed, "daily_routines", new Document("userId", PROBE), new Document("dayNumber", -1));
+        check(unindexed, "daily_routines", new Document("userId", PROBE)
+                .append("dayNumber", new Document("$gt", 0)), new Document("dayNumber", 1));
+
+        // DaySummaryRepository
+        check(unindexed, "day_summaries", new Document("userId", PROBE).append("date", to), null);
+        check(unindexed, "day_summaries", new Document("userId", PROBE), new Document("date", -1));
+        check(unindexed, "day_summaries", new Document("userId", PROBE)
+                .append("date", new Document("$gt", from).append("$lt", to)), new Document("date", -1));
+        check(unindexed, "day_summaries", new Document("userId", PROBE)
+                .append("overallPerformance", "GOOD"), new Document("date", -1));
+
+        // WorkoutPlanRepository / MealPlanRepository
+        for (String collection : List.of("workout_plans", "meal_plans")) {
+            check(unindexed, collection, new Document("userId", PROBE).append("targetDate", to), null);
+            check(unindexed, collection, new Document("userId", PROBE), new Document("targetDate", -1));
+            check(unindexed, collection, new Document("userId", PROBE)
+                    .append("aiGenerated", true), new Document("targetDate", -1));
+            check(unindexed, collection, new Document("userId", PROBE)
+                    .append("targetDate", new Document("$gt", from).append("$lt", to)), new Document("targetDate", -1));
+        }
+        check(unindexed, "workout_plans", new Document("userId", PROBE)
+                .append("difficulty", "BEGINNER"), new Document("targetDate", -1));
+        check(unindexed, "workout_plans", new Document("userId", PROBE)
+                .append("focusArea", "STRENGTH"), new Document("targetDate", -1));
+        check(unindexed, "meal_plans", new Document("userId", PROBE)
+                .append("dietType", "BALANCED"), new Document("targetDate", -1));
+        check(unindexed, "meal_plans", new Document("userId", PROBE)
+                .append("targetCalories", new Document("$gte", 1500).append("$lte", 2500)), null);
+
+        // ProgressRollupRepository
+        check(unindexed, "progress_rollups", new Document("userId", PROBE).append("period", "DAY")
+                .append("periodStart", new Document("$gte", from)), new Document("periodStart", 1));
+
+        // TokenRevocationService / RefreshTokenService
+        check(unindexed, "revoked_tokens", new Document("revokedAt", new Document("$gte", from)), new Document("revokedAt", 1));
+        check(unindexed, "refresh_tokens", new Document("userId", PROBE), null);
+
+        return unindexed;
+    }
+
+    private void check(List<String> unindexed, String collection, Document filter, Document sort) {
+        Document find = new Document("find", collection).append("filter", filter);
+        if (sort != null) {
+            find.append("sort", sort);
+        }
+
+        Document explain = mongoTemplate.getDb().runCommand(
+                new Document("explain", find).append("verbosity", "queryPlanner"));
+
+        Set<String> stages = winningPlanStages(explain);
+        if (stages.contains("COLLSCAN") || stages.contains("SORT")) {
+            unindexed.add(collection + " filter=" + filter.toJson()
+                    + (sort != null ? " sort=" + sort.toJson() : "") + " stages=" + stages);
+        }
+    }
+
+    /**
+     * Every stage of the winning plan in an explain result
+     */
+    static Set<String> winningPlanStages(Document explain) {
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        Set<String> stages = new HashSet<>();
+        collectStages(queryPlanner != null ? queryPlanner.get("winningPlan") : null, stages);
+        return stages;
+    }
+
+    /**
+     * Walk the plan tree (classic and SBE layouts) collecting every "stage" value
+     */
+    private static void collectStages(Object node, Set<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage != null) {
+                stages.add(stage.toString());
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+}
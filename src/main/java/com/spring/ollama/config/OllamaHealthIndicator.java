@@ -0,0 +1,52 @@
+package com.spring.ollama.config;
+
+import com.spring.ollama.service.OllamaWarmupService;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * "ollama" health component: UP once OllamaWarmupService has loaded the chat model on at least
+ * one router backend, with per-backend warm/ejected details. It is part of the readiness group,
+ * so /actuator/health/readiness stays DOWN (and load balancers send no traffic) until then.
+ */
+@Component
+public class OllamaHealthIndicator implements HealthIndicator {
+
+    private final OllamaWarmupService warmupService;
+
+    public OllamaHealthIndicator(OllamaWarmupService warmupService) {
+        this.warmupService = warmupService;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmupService.isReady() ? Health.up() : Health.down();
+        builder.withDetail("model", warmupService.getModel());
+
+        if (!warmupService.isEnabled()) {
+            return builder.withDetail("warmup", "disabled").build();
+        }
+
+        Map<String, Object> backends = new LinkedHashMap<>();
+        for (RoutingChatModel.Backend backend : warmupService.getBackends()) {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("warm", backend.isWarm());
+            details.put("ejected", backend.isEjected());
+            if (backend.getLastWarmAt() != null) {
+                details.put("lastWarmAt", backend.getLastWarmAt().toString());
+            }
+            if (backend.getLastLoadMs() != null) {
+                details.put("lastLoadMs", backend.getLastLoadMs());
+            }
+            if (backend.getLastWarmError() != null) {
+                details.put("error", backend.getLastWarmError());
+            }
+            backends.put(backend.getName(), details);
+        }
+        return builder.withDetail("backends", backends).build();
+    }
+}
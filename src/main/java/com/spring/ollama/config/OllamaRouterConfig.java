@@ -0,0 +1,110 @@
+package com.spring.ollama.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.model.ollama.autoconfigure.OllamaChatProperties;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exposes a RoutingChatModel as the primary ChatModel. With ollama.router.base-urls empty the
+ * router has a single backend (the autoconfigured OllamaChatModel), so behaviour is unchanged;
+ * with a list of URLs each one gets its own OllamaChatModel sharing the configured chat options.
+ */
+@Configuration
+public class OllamaRouterConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(OllamaRouterConfig.class);
+
+    @Value("${ollama.router.base-urls:}")
+    private List<String> baseUrls;
+
+    @Value("${spring.ai.ollama.base-url:http://localhost:11434}")
+    private String defaultBaseUrl;
+
+    @Value("${ollama.router.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${ollama.router.ejection-ms:30000}")
+    private long ejectionMs;
+
+    @Value("${ollama.router.max-attempts:2}")
+    private int maxAttempts;
+
+    @Value("${ollama.router.health-timeout-ms:2000}")
+    private long healthTimeoutMs;
+
+    @Value("${ollama.router.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    // Upper bound for one blocking generation; a hung backend fails over instead of holding the caller
+    @Value("${ollama.router.read-timeout-ms:300000}")
+    private long readTimeoutMs;
+
+    private RoutingChatModel router;
+
+    @Bean
+    @Primary
+    public RoutingChatModel routingChatModel(OllamaChatModel ollamaChatModel, OllamaChatProperties chatProperties,
+                                             ObservationRegistry observationRegistry, MeterRegistry meterRegistry,
+                                             RestClient.Builder restClientBuilder) {
+        Duration healthTimeout = Duration.ofMillis(healthTimeoutMs);
+        Duration readTimeout = Duration.ofMillis(readTimeoutMs);
+        List<RoutingChatModel.Backend> backends = new ArrayList<>();
+
+        List<String> urls = baseUrls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        if (urls.isEmpty()) {
+            backends.add(new RoutingChatModel.Backend(defaultBaseUrl, ollamaChatModel, restClientBuilder,
+                    healthTimeout, readTimeout));
+        } else {
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                    HttpClient.newBuilder().connectTimeout(Duration.ofMillis(connectTimeoutMs)).build());
+            requestFactory.setReadTimeout(readTimeout);
+
+            for (String url : urls) {
+                OllamaApi ollamaApi = OllamaApi.builder()
+                        .baseUrl(url)
+                        .restClientBuilder(restClientBuilder.clone().requestFactory(requestFactory))
+                        .build();
+
+                // Retries are the router's job: it moves to another backend instead of hammering this one
+                OllamaChatModel backendModel = OllamaChatModel.builder()
+                        .ollamaApi(ollamaApi)
+                        .defaultOptions(chatProperties.getOptions())
+                        .observationRegistry(observationRegistry)
+                        .retryTemplate(RetryTemplate.builder().maxAttempts(1).build())
+                        .build();
+                backends.add(new RoutingChatModel.Backend(url, backendModel, restClientBuilder,
+                        healthTimeout, readTimeout));
+            }
+        }
+
+        logger.info("Creating LLM router - backends: {}, failure threshold: {}, ejection: {} ms",
+                backends.size(), failureThreshold, ejectionMs);
+        router = new RoutingChatModel(backends, failureThreshold, ejectionMs, maxAttempts, meterRegistry);
+        return router;
+    }
+
+    @Scheduled(fixedDelayString = "${ollama.router.health-check-ms:10000}",
+            initialDelayString = "${ollama.router.health-check-ms:10000}")
+    public void checkBackendHealth() {
+        if (router != null) {
+            router.checkHealth();
+        }
+    }
+}
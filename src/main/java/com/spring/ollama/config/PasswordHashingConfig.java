@@ -0,0 +1,42 @@
+package com.spring.ollama.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class PasswordHashingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingConfig.class);
+
+    // 0 = half the available cores, so hashing can never take the whole CPU
+    @Value("${auth.hashing.pool-size:0}")
+    private int poolSize;
+
+    @Value("${auth.hashing.queue-capacity:100}")
+    private int queueCapacity;
+
+    /**
+     * BCrypt runs here instead of on Tomcat threads. The queue is bounded and the
+     * default AbortPolicy rejects excess work, which AuthService reports as 429.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator()); // carry the current trace context to worker threads
+        executor.initialize();
+
+        logger.info("Password hashing executor initialized with {} threads, queue capacity {}", threads, queueCapacity);
+        return executor;
+    }
+}
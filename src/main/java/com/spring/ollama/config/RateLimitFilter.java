@@ -0,0 +1,121 @@
+package com.spring.ollama.config;
+
+import com.spring.ollama.service.RateLimitService;
+import com.spring.ollama.service.RateLimitService.CostClass;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies RateLimitService budgets to the endpoints that call the LLM. Clients are keyed by
+ * authenticated user, then by a configured X-API-Key, then by remote address. Every limited
+ * response carries RateLimit-Limit / RateLimit-Remaining / RateLimit-Reset / RateLimit-Policy;
+ * rejected requests get 429 with Retry-After before reaching the controller.
+ *
+ * Registered after JwtAuthenticationFilter inside the security filter chain - not a @Component.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    // Most expensive class first; the first match wins
+    private static final List<Map.Entry<CostClass, List<String>>> RULES = List.of(
+            Map.entry(CostClass.PDF, List.of(
+                    "/api/fitness/complete-plan-pdf",
+                    "/api/fitness/workout-plan-pdf",
+                    "/api/fitness/meal-plan-pdf",
+                    "/api/fitness/user-complete-plan/*/generate-pdf")),
+            Map.entry(CostClass.PLAN, List.of(
+                    "/api/fitness/complete-plan",
+                    "/api/fitness/complete-plan-v2",
+                    "/api/fitness/complete-plan-text",
+                    "/api/fitness/user-complete-plan/*",
+                    "/api/fitness/workout-plan",
+                    "/api/fitness/meal-plan")),
+            Map.entry(CostClass.ASK, List.of(
+                    "/api/fitness/ask",
+                    "/api/fitness/exercise-form",
+                    "/api/fitness/supplements",
+                    "/ai/ask")));
+
+    private final RateLimitService rateLimitService;
+
+    public RateLimitFilter(RateLimitService rateLimitService) {
+        this.rateLimitService = rateLimitService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights are never limited
+        return !rateLimitService.isEnabled() || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        CostClass costClass = classify(request.getRequestURI().substring(request.getContextPath().length()));
+        if (costClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitService.Decision decision = rateLimitService.tryConsume(clientKey(request), costClass);
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.getLimit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.getResetSeconds()));
+        response.setHeader("RateLimit-Policy", decision.getLimit() + ";w=" + decision.getWindowSeconds());
+
+        if (!decision.isAllowed()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests, please try again in "
+                    + decision.getRetryAfterSeconds() + " seconds\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private CostClass classify(String path) {
+        for (Map.Entry<CostClass, List<String>> rule : RULES) {
+            for (String pattern : rule.getValue()) {
+                if (PATH_MATCHER.match(pattern, path)) {
+                    return rule.getKey();
+                }
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (rateLimitService.isKnownApiKey(apiKey)) {
+            return "key:" + apiKey;
+        }
+
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,316 @@
+package com.spring.ollama.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ChatModel that spreads calls over several Ollama backends.
+ *
+ * Selection is least-outstanding-requests among available backends (ties rotate). A backend is
+ * available once OllamaWarmupService has loaded the model on it and while it is not ejected. It is
+ * ejected after failure-threshold consecutive connection / 5xx failures, or when its health check
+ * (GET /api/tags) fails, and is reinstated by the first successful health check after its
+ * ejection period. A blocking call that fails on one backend is retried on another; streams are
+ * not retried since part of the answer may already have been delivered. If no backend is
+ * available, calls still go to the least loaded one rather than failing outright.
+ *
+ * Metrics per backend: llm.backend.request (timer, outcome), llm.backend.in.flight,
+ * llm.backend.available and llm.backend.ejections.
+ */
+public class RoutingChatModel implements ChatModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingChatModel.class);
+
+    private final List<Backend> backends;
+    private final int failureThreshold;
+    private final long ejectionMs;
+    private final int maxAttempts;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    public RoutingChatModel(List<Backend> backends, int failureThreshold, long ejectionMs, int maxAttempts,
+                            MeterRegistry meterRegistry) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one Ollama backend is required");
+        }
+        this.backends = List.copyOf(backends);
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.ejectionMs = ejectionMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.meterRegistry = meterRegistry;
+
+        for (Backend backend : this.backends) {
+            Gauge.builder("llm.backend.in.flight", backend.inFlight, AtomicInteger::get)
+                    .tag("backend", backend.name)
+                    .register(meterRegistry);
+            Gauge.builder("llm.backend.available", backend, b -> b.isAvailable() ? 1 : 0)
+                    .tag("backend", backend.name)
+                    .register(meterRegistry);
+            Gauge.builder("llm.backend.warm", backend, b -> b.isWarm() ? 1 : 0)
+                    .tag("backend", backend.name)
+                    .register(meterRegistry);
+        }
+        logger.info("LLM router initialized with {} backends: {}", this.backends.size(),
+                this.backends.stream().map(b -> b.name).toList());
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        List<Backend> tried = new ArrayList<>();
+        RuntimeException lastFailure = null;
+
+        for (int attempt = 0; attempt < maxAttempts && tried.size() < backends.size(); attempt++) {
+            Backend backend = select(tried);
+            tried.add(backend);
+
+            long start = System.nanoTime();
+            backend.inFlight.incrementAndGet();
+            try {
+                ChatResponse response = backend.chatModel.call(prompt);
+                record(backend, start, "success");
+                backend.consecutiveFailures.set(0);
+                return response;
+            } catch (RuntimeException e) {
+                if (!isBackendFailure(e)) {
+                    // The request itself was rejected (4xx, bad options) - another backend won't do better
+                    record(backend, start, "rejected");
+                    throw e;
+                }
+                record(backend, start, "error");
+                onFailure(backend, e);
+                lastFailure = e;
+            } finally {
+                backend.inFlight.decrementAndGet();
+            }
+        }
+        throw lastFailure;
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            Backend backend = select(List.of());
+            long start = System.nanoTime();
+            backend.inFlight.incrementAndGet();
+            return backend.chatModel.stream(prompt)
+                    .timeout(backend.readTimeout) // max gap between chunks, the blocking client has its own read timeout
+                    .doOnComplete(() -> {
+                        record(backend, start, "success");
+                        backend.consecutiveFailures.set(0);
+                    })
+                    .doOnError(e -> {
+                        record(backend, start, "error");
+                        if (isBackendFailure(e)) {
+                            onFailure(backend, e);
+                        }
+                    })
+                    .doFinally(signal -> backend.inFlight.decrementAndGet());
+        });
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return backends.get(0).chatModel.getDefaultOptions();
+    }
+
+    /**
+     * Probe every backend; reinstates ejected backends whose ejection period is over and that answer
+     */
+    public void checkHealth() {
+        for (Backend backend : backends) {
+            boolean ejected = backend.isEjected();
+            if (ejected && System.currentTimeMillis() < backend.ejectedUntil) {
+                continue;
+            }
+            try {
+                backend.healthClient.get().uri("/api/tags").retrieve().toBodilessEntity();
+                if (ejected) {
+                    backend.ejectedUntil = 0;
+                    backend.consecutiveFailures.set(0);
+                    logger.info("LLM backend {} reinstated", backend.name);
+                }
+            } catch (Exception e) {
+                if (!ejected) {
+                    eject(backend, "health check failed: " + e.getMessage());
+                } else {
+                    backend.ejectedUntil = System.currentTimeMillis() + ejectionMs;
+                }
+            }
+        }
+    }
+
+    public List<Backend> getBackends() {
+        return backends;
+    }
+
+    /**
+     * Least outstanding requests among available backends not yet tried; the scan starts at a
+     * rotating offset so equally loaded backends share the traffic
+     */
+    private Backend select(List<Backend> exclude) {
+        Backend best = null;
+        Backend bestFallback = null;
+        int offset = Math.floorMod(rotation.getAndIncrement(), backends.size());
+
+        for (int i = 0; i < backends.size(); i++) {
+            Backend candidate = backends.get((offset + i) % backends.size());
+            if (exclude.contains(candidate)) {
+                continue;
+            }
+            if (bestFallback == null || candidate.inFlight.get() < bestFallback.inFlight.get()) {
+                bestFallback = candidate;
+            }
+            if (candidate.isAvailable() && (best == null || candidate.inFlight.get() < best.inFlight.get())) {
+                best = candidate;
+            }
+        }
+        return best != null ? best : bestFallback;
+    }
+
+    private void onFailure(Backend backend, Throwable e) {
+        int failures = backend.consecutiveFailures.incrementAndGet();
+        logger.warn("LLM backend {} failed ({} in a row): {}", backend.name, failures, e.getMessage());
+        if (failures >= failureThreshold && !backend.isEjected()) {
+            eject(backend, failures + " consecutive failures");
+        }
+    }
+
+    private void eject(Backend backend, String reason) {
+        backend.ejectedUntil = System.currentTimeMillis() + ejectionMs;
+        Counter.builder("llm.backend.ejections").tag("backend", backend.name).register(meterRegistry).increment();
+        logger.warn("LLM backend {} ejected for {} ms: {}", backend.name, ejectionMs, reason);
+    }
+
+    private void record(Backend backend, long startNanos, String outcome) {
+        Timer.builder("llm.backend.request")
+                .tag("backend", backend.name)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Connection failures, timeouts and 5xx mean the backend is unwell; anything else is about the request
+     */
+    private static boolean isBackendFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ResourceAccessException || t instanceof HttpServerErrorException
+                    || t instanceof TransientAiException || t instanceof IOException
+                    || t instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One Ollama instance behind the router
+     */
+    public static class Backend {
+        private final String name;
+        private final ChatModel chatModel;
+        private final RestClient healthClient;
+        private final Duration readTimeout;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile long ejectedUntil;
+
+        // Maintained by OllamaWarmupService
+        private volatile boolean warm;
+        private volatile Instant lastWarmAt;
+        private volatile Long lastLoadMs;
+        private volatile String lastWarmError;
+
+        public Backend(String baseUrl, ChatModel chatModel, RestClient.Builder restClientBuilder,
+                       Duration healthTimeout, Duration readTimeout) {
+            this.name = baseUrl;
+            this.chatModel = chatModel;
+            this.readTimeout = readTimeout;
+
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                    HttpClient.newBuilder().connectTimeout(healthTimeout).build());
+            requestFactory.setReadTimeout(healthTimeout);
+            this.healthClient = restClientBuilder.clone()
+                    .baseUrl(baseUrl)
+                    .requestFactory(requestFactory)
+                    .build();
+        }
+
+        /**
+         * Takes traffic: the model is loaded and the backend is not ejected
+         */
+        public boolean isAvailable() {
+            return warm && !isEjected();
+        }
+
+        public boolean isEjected() {
+            return ejectedUntil != 0;
+        }
+
+        public void markWarm(Long loadMs) {
+            if (!warm) {
+                logger.info("LLM backend {} is warm (load {} ms)", name, loadMs);
+            }
+            lastWarmAt = Instant.now();
+            lastLoadMs = loadMs;
+            lastWarmError = null;
+            warm = true;
+        }
+
+        public void markCold(String error) {
+            if (warm || lastWarmError == null) {
+                logger.warn("LLM backend {} is not warm: {}", name, error);
+            }
+            lastWarmError = error;
+            warm = false;
+        }
+
+        public boolean isWarm() {
+            return warm;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        public Instant getLastWarmAt() {
+            return lastWarmAt;
+        }
+
+        public Long getLastLoadMs() {
+            return lastLoadMs;
+        }
+
+        public String getLastWarmError() {
+            return lastWarmError;
+        }
+    }
+}
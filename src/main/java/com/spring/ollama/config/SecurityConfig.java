@@ -1,35 +1,81 @@
 package com.spring.ollama.config;
 
+import com.spring.ollama.service.JwtService;
+import com.spring.ollama.service.RateLimitService;
+import com.spring.ollama.service.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.util.function.Supplier;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // BCrypt cost factor; raising it re-hashes existing passwords on their next login
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtService jwtService,
+                                                   TokenRevocationService tokenRevocationService,
+                                                   RateLimitService rateLimitService) throws Exception {
         http
                 .csrf(csrf -> csrf.disable()) // Disable CSRF for development
                 .cors(cors -> cors.configure(http)) // Enable CORS
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // JWT only, no HTTP session
+                .addFilterBefore(new JwtAuthenticationFilter(jwtService, tokenRevocationService), UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(new RateLimitFilter(rateLimitService), JwtAuthenticationFilter.class) // LLM endpoint budgets, keyed by the authenticated user
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .authorizeHttpRequests(auth -> auth
+                        // User-scoped data: a valid, unrevoked token for that same user
+                        .requestMatchers("/api/auth/user/{userId}",
+                                "/api/fitness/routines/{userId}/**",
+                                "/api/fitness/user-complete-plan/{userId}/**").access(SecurityConfig::isSameUser)
+                        .requestMatchers("/api/routine/**").access(SecurityConfig::isSameUser) // ?userId=
                         .requestMatchers("/api/auth/**").permitAll() // Allow auth endpoints
-                        .requestMatchers("/api/**").permitAll() // Allow all API endpoints for now
+                        .requestMatchers("/api/**").permitAll() // Remaining API endpoints are not user-scoped
                         .anyRequest().permitAll() // Allow everything else
                 );
 
         return http.build();
     }
+
+    /**
+     * Grants the request when the token's user id claim matches the {userId} path variable
+     * (or the userId query parameter). Anonymous callers get 401 through the entry point.
+     */
+    private static AuthorizationDecision isSameUser(Supplier<Authentication> authentication,
+                                                    RequestAuthorizationContext context) {
+        Authentication auth = authentication.get();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedUser user) || user.userId() == null) {
+            return new AuthorizationDecision(false);
+        }
+        String userId = context.getVariables().get("userId");
+        if (userId == null) {
+            userId = context.getRequest().getParameter("userId");
+        }
+        return new AuthorizationDecision(user.userId().equals(userId));
+    }
 }
 
 // Alternative if you DON'T want Spring Security at all (simpler):
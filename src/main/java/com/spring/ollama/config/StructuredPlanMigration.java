@@ -0,0 +1,89 @@
+package com.spring.ollama.config;
+
+import com.spring.ollama.entity.DailyRoutine;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One-off startup migration: daily routines written before plans were embedded stored the
+ * parser output as a JSON string in structuredPlanJson. Re-write those as a native
+ * structuredPlan sub-document and drop the string field. Idempotent - migrated documents
+ * no longer match the query.
+ */
+@Component
+public class StructuredPlanMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(StructuredPlanMigration.class);
+
+    private static final String LEGACY_FIELD = "structuredPlanJson";
+    private static final String PLAN_FIELD = "structuredPlan";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${mongo.migrations.structured-plan.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mongo.migrations.structured-plan.batch-size:500}")
+    private int batchSize;
+
+    public StructuredPlanMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyPlans() {
+        if (!enabled) {
+            return;
+        }
+
+        String collection = mongoTemplate.getCollectionName(DailyRoutine.class);
+        int migrated = 0;
+        int failed = 0;
+
+        try {
+            while (true) {
+                Query query = Query.query(Criteria.where(LEGACY_FIELD).exists(true)).limit(batchSize);
+                query.fields().include(LEGACY_FIELD);
+                List<Document> batch = mongoTemplate.find(query, Document.class, collection);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+                for (Document legacy : batch) {
+                    Update update = new Update().unset(LEGACY_FIELD);
+                    Object json = legacy.get(LEGACY_FIELD);
+                    try {
+                        if (json instanceof String text && !text.isBlank()) {
+                            update.set(PLAN_FIELD, Document.parse(text));
+                        }
+                    } catch (Exception e) {
+                        // Unparseable legacy plan: drop the string so the routine stays readable
+                        logger.warn("Could not parse legacy plan for routine {}: {}", legacy.get("_id"), e.getMessage());
+                        failed++;
+                    }
+                    bulk.updateOne(Query.query(Criteria.where("_id").is(legacy.get("_id"))), update);
+                }
+                migrated += bulk.execute().getModifiedCount();
+            }
+
+            if (migrated > 0) {
+                logger.info("Migrated {} daily routines to embedded structured plans ({} unparseable)", migrated, failed);
+            }
+        } catch (Exception e) {
+            logger.error("Structured plan migration failed after {} routines", migrated, e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.spring.ollama.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class WhatsAppClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(WhatsAppClientConfig.class);
+
+    @Value("${whatsapp.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${whatsapp.http.read-timeout-ms:15000}")
+    private long readTimeoutMs;
+
+    @Value("${whatsapp.bulk.concurrency:8}")
+    private int bulkConcurrency;
+
+    /**
+     * Single JDK HttpClient for all Graph API calls.
+     * The client keeps connections alive and reuses them (and multiplexes over HTTP/2
+     * where the server supports it), so we no longer pay a TLS handshake per message.
+     */
+    @Bean
+    public HttpClient whatsAppHttpClient() {
+        logger.info("Initializing WhatsApp HttpClient - connect timeout: {} ms", connectTimeoutMs);
+
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * RestTemplate used by WhatsAppService, backed by the pooled HttpClient above
+     */
+    @Bean
+    public RestTemplate whatsAppRestTemplate(HttpClient whatsAppHttpClient, ObservationRegistry observationRegistry) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(whatsAppHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+        logger.info("WhatsApp RestTemplate created with read timeout: {} ms", readTimeoutMs);
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.setObservationRegistry(observationRegistry); // client spans for Graph API calls
+        return restTemplate;
+    }
+
+    /**
+     * Worker pool for bulk sends; pacing is done by the rate limiter, this only bounds concurrency
+     */
+    @Bean
+    public ThreadPoolTaskExecutor whatsAppBulkExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(bulkConcurrency);
+        executor.setMaxPoolSize(bulkConcurrency);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("whatsapp-bulk-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator()); // carry the current trace context to worker threads
+        executor.initialize();
+
+        logger.info("WhatsApp bulk executor initialized with concurrency: {}", bulkConcurrency);
+        return executor;
+    }
+}
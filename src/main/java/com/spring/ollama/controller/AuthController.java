@@ -2,9 +2,13 @@ package com.spring.ollama.controller;
 
 import com.spring.ollama.dto.AuthResponse;
 import com.spring.ollama.dto.CompleteFitnessPlanRequest;
+import com.spring.ollama.dto.RefreshTokenRequest;
 import com.spring.ollama.dto.RegisterRequest;
 import com.spring.ollama.entity.User;
 import com.spring.ollama.service.AuthService;
+import com.spring.ollama.service.AuthThrottledException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -31,10 +35,16 @@ public class AuthController {
      * Register a new user
      */
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request) {
+    public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request,
+                                                 HttpServletRequest httpRequest) {
         logger.info("Received registration request for email: {}", request.getEmail());
-        AuthResponse response = authService.register(request);
-        logger.info("response {} ,{}, {}, {}",response.getMessage(),response.isSuccess(),response.getUser(),response.toString());
+        AuthResponse response;
+        try {
+            response = authService.register(request, httpRequest.getRemoteAddr());
+        } catch (AuthThrottledException e) {
+            return tooManyRequests(e);
+        }
+        logger.info("Registration response: success={}, message={}", response.isSuccess(), response.getMessage());
 
         if (response.isSuccess()) {
             logger.info("User registered successfully sending success response to ui {} ",response.getMessage());
@@ -50,9 +60,15 @@ public class AuthController {
      * Login user
      */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody CompleteFitnessPlanRequest.LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@RequestBody CompleteFitnessPlanRequest.LoginRequest request,
+                                              HttpServletRequest httpRequest) {
         logger.info("Received login request for: {}", request.getEmailOrUsername());
-        AuthResponse response = authService.login(request);
+        AuthResponse response;
+        try {
+            response = authService.login(request, httpRequest.getRemoteAddr());
+        } catch (AuthThrottledException e) {
+            return tooManyRequests(e);
+        }
 
         if (response.isSuccess()) {
             logger.info("User logged in successfully with response {}", response.getMessage());
@@ -63,6 +79,43 @@ public class AuthController {
         }
     }
 
+    /**
+     * Endpoint: POST /api/auth/refresh
+     * Exchange a refresh token for a new access token and refresh token
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody RefreshTokenRequest request) {
+        AuthResponse response = authService.refresh(request.getRefreshToken());
+
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response);
+        } else {
+            logger.info("Token refresh rejected: {}", response.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        }
+    }
+
+    /**
+     * Endpoint: POST /api/auth/logout?allSessions=false
+     * Revoke the bearer access token and the given refresh token (or every session of the user)
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<AuthResponse> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                               @RequestBody(required = false) RefreshTokenRequest request,
+                                               @RequestParam(defaultValue = "false") boolean allSessions) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring("Bearer ".length()) : null;
+        String refreshToken = request != null ? request.getRefreshToken() : null;
+
+        AuthResponse response = authService.logout(accessToken, refreshToken, allSessions);
+
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
     /**
      * Endpoint: GET /api/auth/user/{userId}
      * Get user details by ID
@@ -94,4 +147,11 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error updating profile");
         }
     }
+
+    private ResponseEntity<AuthResponse> tooManyRequests(AuthThrottledException e) {
+        logger.warn("Authentication throttled: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new AuthResponse(false, e.getMessage()));
+    }
 }
@@ -1,5 +1,6 @@
 package com.spring.ollama.controller;
 
+import com.spring.ollama.config.LogPayloads;
 import com.spring.ollama.dto.CompleteFitnessPlanRequest;
 import com.spring.ollama.dto.CompleteFitnessPlanResponse;
 import com.spring.ollama.service.FitnessAiService;
@@ -35,7 +36,7 @@ public class EnhancedFitnessController {
     @PostMapping(value = "/complete-plan-v2", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Object> getCompleteFitnessPlanV2(@RequestBody CompleteFitnessPlanRequest request) {
         logger.info("Received COMPLETE fitness plan request (v2 - structured)");
-        logger.debug("Request: {}", request);
+        logger.debug("Request: {}", LogPayloads.preview(request));
 
         long startTime = System.currentTimeMillis();
 
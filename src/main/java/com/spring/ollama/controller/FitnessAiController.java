@@ -1,14 +1,19 @@
 package com.spring.ollama.controller;
 
 
+import com.spring.ollama.config.LogPayloads;
 import com.spring.ollama.dto.CompleteFitnessPlanRequest;
 import com.spring.ollama.dto.CompleteFitnessPlanResponse;
 import com.spring.ollama.dto.ExerciseFormRequest;
 import com.spring.ollama.dto.MealPlanRequest;
 import com.spring.ollama.dto.PdfGenerationResponse;
+import com.spring.ollama.dto.RoutinePageResponse;
+import com.spring.ollama.dto.RoutineStatsResponse;
+import com.spring.ollama.dto.RoutineSummary;
 import com.spring.ollama.dto.SupplementRequest;
 import com.spring.ollama.dto.WorkoutPlanRequest;
 import com.spring.ollama.entity.DailyRoutine;
+import com.spring.ollama.entity.StructuredJourney;
 import com.spring.ollama.service.DailyRoutineService;
 import com.spring.ollama.service.FitnessAiService;
 import com.spring.ollama.service.PdfGeneratorService;
@@ -17,9 +22,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -32,6 +40,7 @@ import java.util.concurrent.CompletableFuture;
 public class FitnessAiController {
 
     private static final Logger logger = LoggerFactory.getLogger(FitnessAiController.class);
+    private static final int MAX_ROUTINE_PAGE_SIZE = 100;
     private final FitnessAiService fitnessAiService;
     private final PdfGeneratorService pdfGeneratorService;
     private final DailyRoutineService dailyRoutineService;
@@ -52,7 +61,7 @@ public class FitnessAiController {
             @RequestParam String question,
             @RequestParam(required = false) String conversationId) {
         logger.info("Received fitness question at /api/fitness/ask");
-        logger.debug("Question: {}, ConversationId: {}", question, conversationId);
+        logger.debug("Question: {}, ConversationId: {}", LogPayloads.preview(question), conversationId);
 
         if (question == null || question.trim().isEmpty()) {
             logger.warn("Empty or null question received");
@@ -64,7 +73,7 @@ public class FitnessAiController {
             logger.info("Fitness question processed successfully");
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            logger.error("Error processing fitness question: {}", question, e);
+            logger.error("Error processing fitness question: {}", LogPayloads.preview(question), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error processing your fitness question: " + e.getMessage());
         }
@@ -92,7 +101,7 @@ public class FitnessAiController {
     @PostMapping("/workout-plan")
     public ResponseEntity<String> getWorkoutPlan(@RequestBody WorkoutPlanRequest request) {
         logger.info("Received workout plan request");
-        logger.debug("Request: {}", request);
+        logger.debug("Request: {}", LogPayloads.preview(request));
 
         try {
             String workoutPlan = fitnessAiService.getWorkoutPlan(
@@ -115,7 +124,7 @@ public class FitnessAiController {
     @PostMapping("/meal-plan")
     public ResponseEntity<String> getMealPlan(@RequestBody MealPlanRequest request) {
         logger.info("Received meal plan request");
-        logger.debug("Request: {}", request);
+        logger.debug("Request: {}", LogPayloads.preview(request));
 
         try {
             String mealPlan = fitnessAiService.getMealPlan(
@@ -156,7 +165,7 @@ public class FitnessAiController {
     @PostMapping("/supplements")
     public ResponseEntity<String> getSupplementAdvice(@RequestBody SupplementRequest request) {
         logger.info("Received supplement advice request");
-        logger.debug("Request: {}", request);
+        logger.debug("Request: {}", LogPayloads.preview(request));
 
         try {
             String advice = fitnessAiService.getSupplementAdvice(
@@ -180,7 +189,7 @@ public class FitnessAiController {
     public ResponseEntity<CompleteFitnessPlanResponse> getCompleteFitnessPlan(
             @RequestBody CompleteFitnessPlanRequest request) {
         logger.info("Received COMPLETE fitness plan request");
-        logger.debug("Request: {}", request);
+        logger.debug("Request: {}", LogPayloads.preview(request));
 
         long startTime = System.currentTimeMillis();
 
@@ -218,10 +227,10 @@ public class FitnessAiController {
 
 
     @PostMapping("/user-complete-plan/{userId}/generate-pdf")
-    public ResponseEntity<String> generateFitnessPlanPdf(@PathVariable String userId) {
+    public ResponseEntity<StructuredJourney> generateFitnessPlanPdf(@PathVariable String userId) {
 
         // 1. Generate structured journey synchronously
-        String structuredJourney =
+        StructuredJourney structuredJourney =
                 fitnessAiService.generateStructuredFitnessPlan(userId);
 
         // 2. Fire async PDF + email
@@ -231,13 +240,12 @@ public class FitnessAiController {
 
         // 3. Return structured journey immediately
 //         Save to database
-            DailyRoutine savedRoutine = dailyRoutineService.saveDailyRoutine(userId, structuredJourney);
+            DailyRoutine savedRoutine = dailyRoutineService.saveDailyRoutine(userId, structuredJourney,
+                    structuredJourney.getCurrentDay());
             logger.info("Saved routine to database with id: {}", savedRoutine.getId());
 
-            // Return the structured JSON to frontend
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(structuredJourney);
+            // Return the structured journey to frontend
+            return ResponseEntity.ok(structuredJourney);
     }
 
     /**
@@ -281,6 +289,33 @@ public class FitnessAiController {
         }
     }
 
+    /**
+     * Get a page of routine summaries (no plan body), keyed on dayNumber.
+     * Supports conditional GET: clients sending If-None-Match get 304 when the page is unchanged.
+     */
+    @GetMapping("/routines/{userId}/page")
+    public ResponseEntity<RoutinePageResponse> getRoutinePage(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "0") int afterDay,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        try {
+            if (afterDay < 0 || limit < 1 || limit > MAX_ROUTINE_PAGE_SIZE) {
+                return ResponseEntity.badRequest().build();
+            }
+
+            RoutinePageResponse page = dailyRoutineService.getRoutinePage(userId, afterDay, limit);
+            String etag = routinePageEtag(page);
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(page);
+        } catch (Exception e) {
+            logger.error("Error fetching routine page for user: {}, afterDay: {}", userId, afterDay, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Get a specific day's routine
      */
@@ -302,13 +337,11 @@ public class FitnessAiController {
      * Get current (latest) routine
      */
     @GetMapping("/routines/{userId}/current")
-    public ResponseEntity<String> getCurrentRoutine(@PathVariable String userId) {
+    public ResponseEntity<StructuredJourney> getCurrentRoutine(@PathVariable String userId) {
         try {
             Optional<DailyRoutine> routine = dailyRoutineService.getCurrentRoutine(userId);
             if (routine.isPresent()) {
-                return ResponseEntity.ok()
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .body(routine.get().getStructuredPlanJson());
+                return ResponseEntity.ok(routine.get().getStructuredPlan());
             }
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -317,6 +350,24 @@ public class FitnessAiController {
         }
     }
 
+    /**
+     * Completion stats: totals, current streak and completion rate over the last N routines
+     */
+    @GetMapping("/routines/{userId}/stats")
+    public ResponseEntity<RoutineStatsResponse> getRoutineStats(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "7") int window) {
+        try {
+            if (window < 1) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(dailyRoutineService.getRoutineStats(userId, window));
+        } catch (Exception e) {
+            logger.error("Error computing routine stats for user: {}", userId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Mark a routine as completed
      */
@@ -456,7 +507,7 @@ public class FitnessAiController {
             @RequestBody CompleteFitnessPlanRequest request,
             @RequestParam(required = false) String fileName) {
         logger.info("Received COMPLETE fitness plan PDF request");
-        logger.debug("Request: {}", request);
+        logger.debug("Request: {}", LogPayloads.preview(request));
 
         long startTime = System.currentTimeMillis();
 
@@ -621,4 +672,18 @@ public class FitnessAiController {
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Fitness AI Service is running!");
     }
-}
\ No newline at end of file
+
+    /**
+     * ETag over the fields that change when a routine changes (id, day, completion, updatedAt)
+     */
+    private String routinePageEtag(RoutinePageResponse page) {
+        StringBuilder fingerprint = new StringBuilder(page.getUserId()).append('|').append(page.isHasMore());
+        for (RoutineSummary routine : page.getRoutines()) {
+            fingerprint.append('|').append(routine.getId())
+                    .append(':').append(routine.getDayNumber())
+                    .append(':').append(routine.isCompleted())
+                    .append(':').append(routine.getUpdatedAt());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
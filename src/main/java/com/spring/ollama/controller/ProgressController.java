@@ -0,0 +1,68 @@
+package com.spring.ollama.controller;
+
+import com.spring.ollama.dto.ProgressTrendResponse;
+import com.spring.ollama.entity.ProgressRollup;
+import com.spring.ollama.service.ProgressRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Weekly overview and progress trends, served from pre-aggregated rollups
+ */
+@RestController
+@RequestMapping("/api/routine")
+@CrossOrigin(origins = "*")
+public class ProgressController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProgressController.class);
+
+    private final ProgressRollupService progressRollupService;
+
+    public ProgressController(ProgressRollupService progressRollupService) {
+        this.progressRollupService = progressRollupService;
+    }
+
+    /**
+     * Get weekly overview (week containing startDate, Monday-based)
+     * GET /api/routine/weekly?userId=123&startDate=2025-12-20
+     */
+    @GetMapping("/weekly")
+    public ResponseEntity<ProgressRollup> getWeeklyOverview(
+            @RequestParam String userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate) {
+
+        logger.info("Getting weekly overview for user: {} starting: {}", userId, startDate);
+
+        try {
+            return ResponseEntity.ok(progressRollupService.getWeeklyOverview(userId, startDate));
+        } catch (Exception e) {
+            logger.error("Error getting weekly overview", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Get progress trends
+     * GET /api/routine/trends?userId=123&days=30
+     */
+    @GetMapping("/trends")
+    public ResponseEntity<ProgressTrendResponse> getProgressTrends(
+            @RequestParam String userId,
+            @RequestParam(defaultValue = "30") int days) {
+
+        logger.info("Getting progress trends for user: {} over {} days", userId, days);
+
+        try {
+            return ResponseEntity.ok(progressRollupService.getProgressTrends(userId, days));
+        } catch (Exception e) {
+            logger.error("Error getting trends", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
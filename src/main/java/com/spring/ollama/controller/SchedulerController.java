@@ -1,5 +1,6 @@
 package com.spring.ollama.controller;
 
+import com.spring.ollama.config.LogPayloads;
 import com.spring.ollama.dto.ScheduledReportRequest;
 import com.spring.ollama.service.ReportSchedulerService;
 import org.slf4j.Logger;
@@ -29,7 +30,7 @@ public class SchedulerController {
      */
     @PostMapping("/schedule")
     public ResponseEntity<Map<String, Object>> scheduleReport(@RequestBody ScheduledReportRequest request) {
-        logger.info("Received schedule request: {}", request);
+        logger.info("Received schedule request: {}", LogPayloads.preview(request));
 
         try {
             // Validate request
@@ -161,6 +162,7 @@ public class SchedulerController {
         response.put("scheduleId", scheduleId);
         response.put("isActive", isActive);
         response.put("status", isActive ? "ACTIVE" : "INACTIVE");
+        response.put("lastEmailDelivery", schedulerService.getLastEmailDelivery(scheduleId));
 
         return ResponseEntity.ok(response);
     }
@@ -1,5 +1,7 @@
 package com.spring.ollama.controller;
 
+import com.spring.ollama.dto.BulkWhatsAppRequest;
+import com.spring.ollama.dto.BulkWhatsAppResult;
 import com.spring.ollama.service.WhatsAppService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -154,4 +157,59 @@ public class WhatsAppController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Start a bulk fitness plan send; returns 202 with the job id, poll the status endpoint for results
+     */
+    @PostMapping("/send-fitness-plan/bulk")
+    public ResponseEntity<?> sendFitnessPlanBulk(@RequestBody BulkWhatsAppRequest request) {
+        logger.info("Received bulk WhatsApp request: {}", request);
+
+        if (request.getPhoneNumbers() == null || request.getPhoneNumbers().isEmpty()
+                || request.getPdfPath() == null) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", "phoneNumbers and pdfPath are required");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        if (request.getPhoneNumbers().size() > whatsAppService.getMaxBulkRecipients()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", "At most " + whatsAppService.getMaxBulkRecipients()
+                    + " recipients per bulk request");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        if (!whatsAppService.isWhatsAppEnabled()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", "WhatsApp is not enabled or configured");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+
+        BulkWhatsAppResult job = whatsAppService.startBulkFitnessPlanNotification(
+                request.getPhoneNumbers(),
+                request.getReportName(),
+                request.getPdfPath()
+        );
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/whatsapp/send-fitness-plan/bulk/" + job.getJobId()))
+                .body(job);
+    }
+
+    /**
+     * Progress and per-recipient results of a bulk send job
+     */
+    @GetMapping("/send-fitness-plan/bulk/{jobId}")
+    public ResponseEntity<?> getBulkJobStatus(@PathVariable String jobId) {
+        BulkWhatsAppResult job = whatsAppService.getBulkJob(jobId);
+        if (job == null) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", "Bulk job not found or expired");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        return ResponseEntity.ok(job);
+    }
+}
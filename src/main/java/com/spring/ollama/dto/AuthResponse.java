@@ -9,6 +9,8 @@ public class AuthResponse {
     private boolean success;
     private String message;
     private String token;
+    private String refreshToken;
+    private Long expiresIn; // access token lifetime in seconds
     private User user;
 
     public AuthResponse() {
@@ -51,6 +53,22 @@ public class AuthResponse {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public Long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(Long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+
     public User getUser() {
         return user;
     }
@@ -64,7 +82,7 @@ public class AuthResponse {
         return "AuthResponse{" +
                 "success=" + success +
                 ", message='" + message + '\'' +
-                ", token='" + token + '\'' +
+                ", token=" + (token != null ? "[present]" : "null") +
                 ", user=" + (user != null ? user.getEmail() : "null") +
                 '}';
     }
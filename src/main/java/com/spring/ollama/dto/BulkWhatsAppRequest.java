@@ -0,0 +1,47 @@
+package com.spring.ollama.dto;
+
+import java.util.List;
+
+/**
+ * Request DTO for broadcasting a fitness plan to many WhatsApp recipients
+ */
+public class BulkWhatsAppRequest {
+    private List<String> phoneNumbers;
+    private String reportName;
+    private String pdfPath;
+
+    public BulkWhatsAppRequest() {}
+
+    public List<String> getPhoneNumbers() {
+        return phoneNumbers;
+    }
+
+    public void setPhoneNumbers(List<String> phoneNumbers) {
+        this.phoneNumbers = phoneNumbers;
+    }
+
+    public String getReportName() {
+        return reportName;
+    }
+
+    public void setReportName(String reportName) {
+        this.reportName = reportName;
+    }
+
+    public String getPdfPath() {
+        return pdfPath;
+    }
+
+    public void setPdfPath(String pdfPath) {
+        this.pdfPath = pdfPath;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkWhatsAppRequest{" +
+                "recipients=" + (phoneNumbers != null ? phoneNumbers.size() : 0) +
+                ", reportName='" + reportName + '\'' +
+                ", pdfPath='" + pdfPath + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,84 @@
+package com.spring.ollama.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-recipient report for a bulk WhatsApp send job; status is RUNNING until every recipient has a result
+ */
+public class BulkWhatsAppResult {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+
+    private String jobId;
+    private String status = STATUS_RUNNING;
+    private int totalRecipients;
+    private int successCount;
+    private int failureCount;
+    private long durationMs;
+    private List<RecipientResult> results = new ArrayList<>();
+
+    public static class RecipientResult {
+        private String phoneNumber;
+        private boolean textSent;
+        private boolean documentSent;
+        private String error;
+
+        public RecipientResult() {}
+
+        public RecipientResult(String phoneNumber, boolean textSent, boolean documentSent, String error) {
+            this.phoneNumber = phoneNumber;
+            this.textSent = textSent;
+            this.documentSent = documentSent;
+            this.error = error;
+        }
+
+        public String getPhoneNumber() { return phoneNumber; }
+        public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
+
+        public boolean isTextSent() { return textSent; }
+        public void setTextSent(boolean textSent) { this.textSent = textSent; }
+
+        public boolean isDocumentSent() { return documentSent; }
+        public void setDocumentSent(boolean documentSent) { this.documentSent = documentSent; }
+
+        public boolean isSuccess() { return documentSent; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+    }
+
+    public BulkWhatsAppResult() {}
+
+    public BulkWhatsAppResult(BulkWhatsAppResult other) {
+        this.jobId = other.jobId;
+        this.status = other.status;
+        this.totalRecipients = other.totalRecipients;
+        this.successCount = other.successCount;
+        this.failureCount = other.failureCount;
+        this.durationMs = other.durationMs;
+        this.results = new ArrayList<>(other.results);
+    }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getTotalRecipients() { return totalRecipients; }
+    public void setTotalRecipients(int totalRecipients) { this.totalRecipients = totalRecipients; }
+
+    public int getSuccessCount() { return successCount; }
+    public void setSuccessCount(int successCount) { this.successCount = successCount; }
+
+    public int getFailureCount() { return failureCount; }
+    public void setFailureCount(int failureCount) { this.failureCount = failureCount; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public List<RecipientResult> getResults() { return results; }
+    public void setResults(List<RecipientResult> results) { this.results = results; }
+}
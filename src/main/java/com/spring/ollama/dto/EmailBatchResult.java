@@ -0,0 +1,48 @@
+package com.spring.ollama.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a batched email send
+ */
+public class EmailBatchResult {
+
+    private int total;
+    private int sent;
+    private int failed;
+    private long durationMs;
+    private double messagesPerSecond;
+    private List<String> failedRecipients = new ArrayList<>();
+
+    public EmailBatchResult() {}
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getSent() { return sent; }
+    public void setSent(int sent) { this.sent = sent; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public double getMessagesPerSecond() { return messagesPerSecond; }
+    public void setMessagesPerSecond(double messagesPerSecond) { this.messagesPerSecond = messagesPerSecond; }
+
+    public List<String> getFailedRecipients() { return failedRecipients; }
+    public void setFailedRecipients(List<String> failedRecipients) { this.failedRecipients = failedRecipients; }
+
+    @Override
+    public String toString() {
+        return "EmailBatchResult{" +
+                "total=" + total +
+                ", sent=" + sent +
+                ", failed=" + failed +
+                ", durationMs=" + durationMs +
+                ", messagesPerSecond=" + messagesPerSecond +
+                '}';
+    }
+}
@@ -0,0 +1,86 @@
+package com.spring.ollama.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.micrometer.observation.Observation;
+
+/**
+ * A single outgoing email for the batch send path
+ */
+public class EmailMessageRequest {
+    private String toEmail;
+    private String subject;
+    private String body;            // HTML
+    private String attachmentPath;  // optional PDF
+
+    // Set on scheduled report emails: which schedule sent it, and the span to parent delivery on
+    private String scheduleId;
+    private Observation parentObservation;
+
+    public EmailMessageRequest() {}
+
+    public EmailMessageRequest(String toEmail, String subject, String body, String attachmentPath) {
+        this.toEmail = toEmail;
+        this.subject = subject;
+        this.body = body;
+        this.attachmentPath = attachmentPath;
+    }
+
+    public String getToEmail() {
+        return toEmail;
+    }
+
+    public void setToEmail(String toEmail) {
+        this.toEmail = toEmail;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public String getAttachmentPath() {
+        return attachmentPath;
+    }
+
+    public void setAttachmentPath(String attachmentPath) {
+        this.attachmentPath = attachmentPath;
+    }
+
+    public String getScheduleId() {
+        return scheduleId;
+    }
+
+    public void setScheduleId(String scheduleId) {
+        this.scheduleId = scheduleId;
+    }
+
+    @JsonIgnore
+    public Observation getParentObservation() {
+        return parentObservation;
+    }
+
+    public void setParentObservation(Observation parentObservation) {
+        this.parentObservation = parentObservation;
+    }
+
+    @Override
+    public String toString() {
+        return "EmailMessageRequest{" +
+                "toEmail='" + toEmail + '\'' +
+                ", subject='" + subject + '\'' +
+                ", attachmentPath='" + attachmentPath + '\'' +
+                ", scheduleId='" + scheduleId + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+package com.spring.ollama.dto;
+
+import com.spring.ollama.entity.ProgressRollup;
+
+import java.util.List;
+
+/**
+ * Progress trend series read from the pre-aggregated rollups
+ */
+public class ProgressTrendResponse {
+
+    private String userId;
+    private int days;
+    private List<ProgressRollup> daily;   // one entry per day with activity
+    private List<ProgressRollup> weekly;  // weeks overlapping the window
+
+    public ProgressTrendResponse() {}
+
+    public ProgressTrendResponse(String userId, int days, List<ProgressRollup> daily, List<ProgressRollup> weekly) {
+        this.userId = userId;
+        this.days = days;
+        this.daily = daily;
+        this.weekly = weekly;
+    }
+
+    // Getters and Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public int getDays() { return days; }
+    public void setDays(int days) { this.days = days; }
+
+    public List<ProgressRollup> getDaily() { return daily; }
+    public void setDaily(List<ProgressRollup> daily) { this.daily = daily; }
+
+    public List<ProgressRollup> getWeekly() { return weekly; }
+    public void setWeekly(List<ProgressRollup> weekly) { this.weekly = weekly; }
+}
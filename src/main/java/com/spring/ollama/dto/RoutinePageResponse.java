@@ -0,0 +1,37 @@
+package com.spring.ollama.dto;
+
+import java.util.List;
+
+/**
+ * One page of routine summaries, keyed on dayNumber.
+ * Pass nextAfterDay back as afterDay to fetch the following page.
+ */
+public class RoutinePageResponse {
+
+    private String userId;
+    private List<RoutineSummary> routines;
+    private boolean hasMore;
+    private Integer nextAfterDay;   // null when this is the last page
+
+    public RoutinePageResponse() {}
+
+    public RoutinePageResponse(String userId, List<RoutineSummary> routines, boolean hasMore, Integer nextAfterDay) {
+        this.userId = userId;
+        this.routines = routines;
+        this.hasMore = hasMore;
+        this.nextAfterDay = nextAfterDay;
+    }
+
+    // Getters and Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public List<RoutineSummary> getRoutines() { return routines; }
+    public void setRoutines(List<RoutineSummary> routines) { this.routines = routines; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public Integer getNextAfterDay() { return nextAfterDay; }
+    public void setNextAfterDay(Integer nextAfterDay) { this.nextAfterDay = nextAfterDay; }
+}
@@ -0,0 +1,46 @@
+package com.spring.ollama.dto;
+
+/**
+ * Completion statistics for a user's daily routines
+ */
+public class RoutineStatsResponse {
+
+    private String userId;
+    private long totalRoutines;
+    private long completedRoutines;
+    private int latestDayNumber;
+    private long currentStreak;     // consecutive completed days up to the latest routine
+    private int windowDays;         // size of the completion-rate window (most recent routines)
+    private long windowRoutines;
+    private long windowCompleted;
+    private double completionRate;  // windowCompleted / windowRoutines, 0..1
+
+    public RoutineStatsResponse() {}
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public long getTotalRoutines() { return totalRoutines; }
+    public void setTotalRoutines(long totalRoutines) { this.totalRoutines = totalRoutines; }
+
+    public long getCompletedRoutines() { return completedRoutines; }
+    public void setCompletedRoutines(long completedRoutines) { this.completedRoutines = completedRoutines; }
+
+    public int getLatestDayNumber() { return latestDayNumber; }
+    public void setLatestDayNumber(int latestDayNumber) { this.latestDayNumber = latestDayNumber; }
+
+    public long getCurrentStreak() { return currentStreak; }
+    public void setCurrentStreak(long currentStreak) { this.currentStreak = currentStreak; }
+
+    public int getWindowDays() { return windowDays; }
+    public void setWindowDays(int windowDays) { this.windowDays = windowDays; }
+
+    public long getWindowRoutines() { return windowRoutines; }
+    public void setWindowRoutines(long windowRoutines) { this.windowRoutines = windowRoutines; }
+
+    public long getWindowCompleted() { return windowCompleted; }
+    public void setWindowCompleted(long windowCompleted) { this.windowCompleted = windowCompleted; }
+
+    public double getCompletionRate() { return completionRate; }
+    public void setCompletionRate(double completionRate) { this.completionRate = completionRate; }
+}
@@ -0,0 +1,50 @@
+package com.spring.ollama.dto;
+
+import com.spring.ollama.entity.DailyRoutine;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight routine listing entry - everything except the plan body
+ */
+public class RoutineSummary {
+
+    private String id;
+    private int dayNumber;
+    private boolean completed;
+    private LocalDateTime completedAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public RoutineSummary() {}
+
+    public static RoutineSummary from(DailyRoutine routine) {
+        RoutineSummary summary = new RoutineSummary();
+        summary.setId(routine.getId());
+        summary.setDayNumber(routine.getDayNumber());
+        summary.setCompleted(routine.isCompleted());
+        summary.setCompletedAt(routine.getCompletedAt());
+        summary.setCreatedAt(routine.getCreatedAt());
+        summary.setUpdatedAt(routine.getUpdatedAt());
+        return summary;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public int getDayNumber() { return dayNumber; }
+    public void setDayNumber(int dayNumber) { this.dayNumber = dayNumber; }
+
+    public boolean isCompleted() { return completed; }
+    public void setCompleted(boolean completed) { this.completed = completed; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
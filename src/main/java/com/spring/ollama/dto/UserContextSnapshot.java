@@ -0,0 +1,87 @@
+package com.spring.ollama.dto;
+
+/**
+ * Everything personalised plan generation needs about a user, held in memory:
+ * profile, latest routine day and a short digest of the last generated plan.
+ * Instances are replaced (copy + modify), never mutated while cached.
+ */
+public class UserContextSnapshot {
+
+    private String userId;
+
+    // Profile
+    private String firstName;
+    private String resolvedGoal;
+    private String experienceLevel;
+    private Integer age;
+    private String gender;
+    private String currentWeight;
+    private String targetWeight;
+    private String height;
+    private String dietaryPreference;
+
+    // Routine history
+    private int latestDayNumber;    // 0 when the user has no routines yet
+    private String lastPlanDigest;  // null when the user has no routines yet
+
+    public UserContextSnapshot() {}
+
+    public UserContextSnapshot(UserContextSnapshot other) {
+        this.userId = other.userId;
+        this.firstName = other.firstName;
+        this.resolvedGoal = other.resolvedGoal;
+        this.experienceLevel = other.experienceLevel;
+        this.age = other.age;
+        this.gender = other.gender;
+        this.currentWeight = other.currentWeight;
+        this.targetWeight = other.targetWeight;
+        this.height = other.height;
+        this.dietaryPreference = other.dietaryPreference;
+        this.latestDayNumber = other.latestDayNumber;
+        this.lastPlanDigest = other.lastPlanDigest;
+    }
+
+    /**
+     * The day the next plan is generated for; DailyRoutineService confirms it when the plan is saved
+     */
+    public int getNextDayNumber() {
+        return latestDayNumber + 1;
+    }
+
+    // Getters and Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getResolvedGoal() { return resolvedGoal; }
+    public void setResolvedGoal(String resolvedGoal) { this.resolvedGoal = resolvedGoal; }
+
+    public String getExperienceLevel() { return experienceLevel; }
+    public void setExperienceLevel(String experienceLevel) { this.experienceLevel = experienceLevel; }
+
+    public Integer getAge() { return age; }
+    public void setAge(Integer age) { this.age = age; }
+
+    public String getGender() { return gender; }
+    public void setGender(String gender) { this.gender = gender; }
+
+    public String getCurrentWeight() { return currentWeight; }
+    public void setCurrentWeight(String currentWeight) { this.currentWeight = currentWeight; }
+
+    public String getTargetWeight() { return targetWeight; }
+    public void setTargetWeight(String targetWeight) { this.targetWeight = targetWeight; }
+
+    public String getHeight() { return height; }
+    public void setHeight(String height) { this.height = height; }
+
+    public String getDietaryPreference() { return dietaryPreference; }
+    public void setDietaryPreference(String dietaryPreference) { this.dietaryPreference = dietaryPreference; }
+
+    public int getLatestDayNumber() { return latestDayNumber; }
+    public void setLatestDayNumber(int latestDayNumber) { this.latestDayNumber = latestDayNumber; }
+
+    public String getLastPlanDigest() { return lastPlanDigest; }
+    public void setLastPlanDigest(String lastPlanDigest) { this.lastPlanDigest = lastPlanDigest; }
+}
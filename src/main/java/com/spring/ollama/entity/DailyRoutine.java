@@ -4,24 +4,32 @@
 package com.spring.ollama.entity;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "daily_routines")
+@CompoundIndexes({
+        // findByUserIdAndDayNumber, findByUserIdOrderByDayNumberAsc, findFirstByUserIdOrderByDayNumberDesc, countByUserId
+        @CompoundIndex(name = "user_day_unique", def = "{'userId': 1, 'dayNumber': 1}", unique = true),
+        // findByUserIdAndIsCompletedTrue, countByUserIdAndIsCompletedTrue, streak lookups
+        @CompoundIndex(name = "user_completed_day", def = "{'userId': 1, 'isCompleted': 1, 'dayNumber': 1}"),
+        // covered scan for the routine stats aggregation (sort by day, read completion flag)
+        @CompoundIndex(name = "user_day_completed", def = "{'userId': 1, 'dayNumber': -1, 'isCompleted': 1}")
+})
 public class DailyRoutine {
 
     @Id
     private String id;
 
-    @Indexed
     private String userId;
 
     private int dayNumber;  // 1, 2, 3, etc.
 
-    // Store the entire structured JSON response from LLM
-    private String structuredPlanJson;
+    // Parsed plan, stored as an embedded document (days, workout, meals, macros)
+    private StructuredJourney structuredPlan;
 
     private boolean isCompleted;
     private LocalDateTime completedAt;
@@ -61,12 +69,12 @@ public class DailyRoutine {
         this.dayNumber = dayNumber;
     }
 
-    public String getStructuredPlanJson() {
-        return structuredPlanJson;
+    public StructuredJourney getStructuredPlan() {
+        return structuredPlan;
     }
 
-    public void setStructuredPlanJson(String structuredPlanJson) {
-        this.structuredPlanJson = structuredPlanJson;
+    public void setStructuredPlan(StructuredJourney structuredPlan) {
+        this.structuredPlan = structuredPlan;
     }
 
     public boolean isCompleted() {
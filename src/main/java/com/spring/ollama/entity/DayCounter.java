@@ -0,0 +1,24 @@
+package com.spring.ollama.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Per-user routine day sequence, incremented atomically with findAndModify($inc)
+ */
+@Document(collection = "day_counters")
+public class DayCounter {
+
+    @Id
+    private String id; // userId
+
+    private int seq;   // last day number handed out
+
+    public DayCounter() {}
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public int getSeq() { return seq; }
+    public void setSeq(int seq) { this.seq = seq; }
+}
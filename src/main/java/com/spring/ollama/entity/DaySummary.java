@@ -2,7 +2,8 @@ package com.spring.ollama.entity;
 
 
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -14,15 +15,19 @@ import java.util.Map;
  * Day Summary - Summary of completed day (for AI reference)
  */
 @Document(collection = "day_summaries")
+@CompoundIndexes({
+        // findByUserIdAndDate, findByUserIdOrderByDateDesc, findByUserIdAndDateBetweenOrderByDateDesc
+        @CompoundIndex(name = "user_date", def = "{'userId': 1, 'date': -1}"),
+        // findByUserIdAndOverallPerformanceOrderByDateDesc
+        @CompoundIndex(name = "user_performance_date", def = "{'userId': 1, 'overallPerformance': 1, 'date': -1}")
+})
 public class DaySummary {
 
     @Id
     private String id;
 
-    @Indexed
     private String userId;
 
-    @Indexed
     private LocalDate date;
 
     private String dailyRoutineId; // Reference to DailyRoutine
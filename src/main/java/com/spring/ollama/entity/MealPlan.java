@@ -1,7 +1,8 @@
 package com.spring.ollama.entity;
 
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -12,12 +13,21 @@ import java.util.List;
  * Meal Plan - Detailed meal plan for a specific day
  */
 @Document(collection = "meal_plans")
+@CompoundIndexes({
+        // findByUserIdAndTargetDate, findByUserIdOrderByTargetDateDesc, findByUserIdAndTargetDateBetweenOrderByTargetDateDesc
+        @CompoundIndex(name = "user_target_date", def = "{'userId': 1, 'targetDate': -1}"),
+        // findByUserIdAndAiGeneratedOrderByTargetDateDesc
+        @CompoundIndex(name = "user_ai_generated_date", def = "{'userId': 1, 'aiGenerated': 1, 'targetDate': -1}"),
+        // findByUserIdAndDietTypeOrderByTargetDateDesc
+        @CompoundIndex(name = "user_diet_type_date", def = "{'userId': 1, 'dietType': 1, 'targetDate': -1}"),
+        // findByUserIdAndCalorieRange
+        @CompoundIndex(name = "user_target_calories", def = "{'userId': 1, 'targetCalories': 1}")
+})
 public class MealPlan {
 
     @Id
     private String id;
 
-    @Indexed
     private String userId;
 
     private LocalDate targetDate;
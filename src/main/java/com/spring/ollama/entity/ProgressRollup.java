@@ -0,0 +1,119 @@
+package com.spring.ollama.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated progress for one user over one day or one week (weeks start on Monday).
+ * Maintained incrementally from DaySummary / WorkoutPlan / MealPlan writes, so trend
+ * endpoints read these small documents instead of scanning the raw rows.
+ */
+@Document(collection = "progress_rollups")
+@CompoundIndexes({
+        // trend range reads: userId + period, ordered by periodStart
+        @CompoundIndex(name = "user_period_start", def = "{'userId': 1, 'period': 1, 'periodStart': -1}")
+})
+public class ProgressRollup {
+
+    public static final String DAY = "DAY";
+    public static final String WEEK = "WEEK";
+
+    @Id
+    private String id; // userId:period:periodStart
+
+    private String userId;
+    private String period; // DAY, WEEK
+    private LocalDate periodStart;
+
+    // From WorkoutPlan
+    private long workoutPlans;
+    private long exercisesPlanned;
+    private long exercisesCompleted;
+
+    // From MealPlan
+    private long mealPlans;
+    private long mealsPlanned;
+    private long mealsConsumed;
+    private long caloriesTarget;
+    private long caloriesConsumed;
+
+    // From DaySummary
+    private long summaries;
+    private long performanceScoreTotal; // EXCELLENT=4 .. POOR=1
+
+    private LocalDateTime updatedAt;
+
+    public ProgressRollup() {}
+
+    public static String idFor(String userId, String period, LocalDate periodStart) {
+        return userId + ":" + period + ":" + periodStart;
+    }
+
+    // Derived rates (not stored)
+    public double getExerciseCompletionRate() {
+        return exercisesPlanned == 0 ? 0 : (double) exercisesCompleted / exercisesPlanned;
+    }
+
+    public double getMealCompletionRate() {
+        return mealsPlanned == 0 ? 0 : (double) mealsConsumed / mealsPlanned;
+    }
+
+    public double getCaloriesVsTarget() {
+        return caloriesTarget == 0 ? 0 : (double) caloriesConsumed / caloriesTarget;
+    }
+
+    public double getAveragePerformanceScore() {
+        return summaries == 0 ? 0 : (double) performanceScoreTotal / summaries;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+
+    public LocalDate getPeriodStart() { return periodStart; }
+    public void setPeriodStart(LocalDate periodStart) { this.periodStart = periodStart; }
+
+    public long getWorkoutPlans() { return workoutPlans; }
+    public void setWorkoutPlans(long workoutPlans) { this.workoutPlans = workoutPlans; }
+
+    public long getExercisesPlanned() { return exercisesPlanned; }
+    public void setExercisesPlanned(long exercisesPlanned) { this.exercisesPlanned = exercisesPlanned; }
+
+    public long getExercisesCompleted() { return exercisesCompleted; }
+    public void setExercisesCompleted(long exercisesCompleted) { this.exercisesCompleted = exercisesCompleted; }
+
+    public long getMealPlans() { return mealPlans; }
+    public void setMealPlans(long mealPlans) { this.mealPlans = mealPlans; }
+
+    public long getMealsPlanned() { return mealsPlanned; }
+    public void setMealsPlanned(long mealsPlanned) { this.mealsPlanned = mealsPlanned; }
+
+    public long getMealsConsumed() { return mealsConsumed; }
+    public void setMealsConsumed(long mealsConsumed) { this.mealsConsumed = mealsConsumed; }
+
+    public long getCaloriesTarget() { return caloriesTarget; }
+    public void setCaloriesTarget(long caloriesTarget) { this.caloriesTarget = caloriesTarget; }
+
+    public long getCaloriesConsumed() { return caloriesConsumed; }
+    public void setCaloriesConsumed(long caloriesConsumed) { this.caloriesConsumed = caloriesConsumed; }
+
+    public long getSummaries() { return summaries; }
+    public void setSummaries(long summaries) { this.summaries = summaries; }
+
+    public long getPerformanceScoreTotal() { return performanceScoreTotal; }
+    public void setPerformanceScoreTotal(long performanceScoreTotal) { this.performanceScoreTotal = performanceScoreTotal; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,48 @@
+package com.spring.ollama.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Refresh token - only the SHA-256 of the opaque token is stored.
+ * Mongo's TTL monitor removes the document once expiresAt has passed.
+ */
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    private String id; // SHA-256 of the token
+
+    @Indexed
+    private String userId;
+
+    private String subject; // JWT subject (email) for the access tokens it mints
+
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+
+    private Date createdAt;
+
+    public RefreshToken() {
+        this.createdAt = new Date();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public Date getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Date expiresAt) { this.expiresAt = expiresAt; }
+
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,60 @@
+package com.spring.ollama.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Revocation entry checked on every authenticated request (through an in-memory Bloom filter).
+ * ACCESS entries are keyed by the access token's jti. SESSION entries are keyed by
+ * "sub:" + subject and revoke every access token of that subject issued before notBefore.
+ * Entries only need to outlive the access tokens they cover, so they carry a TTL.
+ */
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+
+    public static final String ACCESS = "ACCESS";
+    public static final String SESSION = "SESSION";
+
+    @Id
+    private String id;
+
+    private String type; // ACCESS, SESSION
+
+    private String subject;
+
+    private Date notBefore; // SESSION only
+
+    @Indexed
+    private Date revokedAt; // incremental refresh cursor
+
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+
+    public RevokedToken() {}
+
+    public static String sessionKey(String subject) {
+        return "sub:" + subject;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public Date getNotBefore() { return notBefore; }
+    public void setNotBefore(Date notBefore) { this.notBefore = notBefore; }
+
+    public Date getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(Date revokedAt) { this.revokedAt = revokedAt; }
+
+    public Date getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Date expiresAt) { this.expiresAt = expiresAt; }
+}
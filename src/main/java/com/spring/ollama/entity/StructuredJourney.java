@@ -0,0 +1,120 @@
+package com.spring.ollama.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed fitness journey, embedded in {@link DailyRoutine} as a native sub-document.
+ * Field names match the JSON shape the frontend already consumes.
+ */
+public class StructuredJourney {
+
+    private int currentDay;
+    private int totalDays;
+    private Overview overview;
+    private List<DayPlan> days = new ArrayList<>();
+
+    public StructuredJourney() {}
+
+    // Getters and Setters
+    public int getCurrentDay() { return currentDay; }
+    public void setCurrentDay(int currentDay) { this.currentDay = currentDay; }
+
+    public int getTotalDays() { return totalDays; }
+    public void setTotalDays(int totalDays) { this.totalDays = totalDays; }
+
+    public Overview getOverview() { return overview; }
+    public void setOverview(Overview overview) { this.overview = overview; }
+
+    public List<DayPlan> getDays() { return days; }
+    public void setDays(List<DayPlan> days) { this.days = days; }
+
+    public static class Overview {
+        private String weeklyGoal;
+        private String estimatedProgress;
+
+        public Overview() {}
+
+        public Overview(String weeklyGoal, String estimatedProgress) {
+            this.weeklyGoal = weeklyGoal;
+            this.estimatedProgress = estimatedProgress;
+        }
+
+        public String getWeeklyGoal() { return weeklyGoal; }
+        public void setWeeklyGoal(String weeklyGoal) { this.weeklyGoal = weeklyGoal; }
+
+        public String getEstimatedProgress() { return estimatedProgress; }
+        public void setEstimatedProgress(String estimatedProgress) { this.estimatedProgress = estimatedProgress; }
+    }
+
+    public static class DayPlan {
+        private int day;
+        private Workout workout;
+        private Meal meal;
+        private String tips;
+
+        public DayPlan() {}
+
+        public int getDay() { return day; }
+        public void setDay(int day) { this.day = day; }
+
+        public Workout getWorkout() { return workout; }
+        public void setWorkout(Workout workout) { this.workout = workout; }
+
+        public Meal getMeal() { return meal; }
+        public void setMeal(Meal meal) { this.meal = meal; }
+
+        public String getTips() { return tips; }
+        public void setTips(String tips) { this.tips = tips; }
+    }
+
+    public static class Workout {
+        private String title;
+        private String duration;
+        private List<String> exercises = new ArrayList<>();
+        private String notes;
+
+        public Workout() {}
+
+        public String getTitle() { return title; }
+        public void setTitle(String title) { this.title = title; }
+
+        public String getDuration() { return duration; }
+        public void setDuration(String duration) { this.duration = duration; }
+
+        public List<String> getExercises() { return exercises; }
+        public void setExercises(List<String> exercises) { this.exercises = exercises; }
+
+        public String getNotes() { return notes; }
+        public void setNotes(String notes) { this.notes = notes; }
+    }
+
+    public static class Meal {
+        private String breakfast;
+        private String lunch;
+        private String dinner;
+        private String snacks;
+        private String totalCalories;
+        private String macros;
+
+        public Meal() {}
+
+        public String getBreakfast() { return breakfast; }
+        public void setBreakfast(String breakfast) { this.breakfast = breakfast; }
+
+        public String getLunch() { return lunch; }
+        public void setLunch(String lunch) { this.lunch = lunch; }
+
+        public String getDinner() { return dinner; }
+        public void setDinner(String dinner) { this.dinner = dinner; }
+
+        public String getSnacks() { return snacks; }
+        public void setSnacks(String snacks) { this.snacks = snacks; }
+
+        public String getTotalCalories() { return totalCalories; }
+        public void setTotalCalories(String totalCalories) { this.totalCalories = totalCalories; }
+
+        public String getMacros() { return macros; }
+        public void setMacros(String macros) { this.macros = macros; }
+    }
+}
@@ -1,7 +1,8 @@
 package com.spring.ollama.entity;
 
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -12,12 +13,21 @@ import java.util.List;
  * Workout Plan - Detailed workout for a specific day
  */
 @Document(collection = "workout_plans")
+@CompoundIndexes({
+        // findByUserIdAndTargetDate, findByUserIdOrderByTargetDateDesc, findByUserIdAndTargetDateBetweenOrderByTargetDateDesc
+        @CompoundIndex(name = "user_target_date", def = "{'userId': 1, 'targetDate': -1}"),
+        // findByUserIdAndAiGeneratedOrderByTargetDateDesc
+        @CompoundIndex(name = "user_ai_generated_date", def = "{'userId': 1, 'aiGenerated': 1, 'targetDate': -1}"),
+        // findByUserIdAndDifficultyOrderByTargetDateDesc
+        @CompoundIndex(name = "user_difficulty_date", def = "{'userId': 1, 'difficulty': 1, 'targetDate': -1}"),
+        // findByUserIdAndFocusAreaOrderByTargetDateDesc
+        @CompoundIndex(name = "user_focus_area_date", def = "{'userId': 1, 'focusArea': 1, 'targetDate': -1}")
+})
 public class WorkoutPlan {
 
     @Id
     private String id;
 
-    @Indexed
     private String userId;
 
     private LocalDate targetDate;
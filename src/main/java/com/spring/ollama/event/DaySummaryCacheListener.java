@@ -0,0 +1,25 @@
+package com.spring.ollama.event;
+
+import com.spring.ollama.entity.DaySummary;
+import com.spring.ollama.service.RecentSummaryContextService;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidates the cached prompt context of a user whenever one of their day summaries is saved
+ */
+@Component
+public class DaySummaryCacheListener extends AbstractMongoEventListener<DaySummary> {
+
+    private final RecentSummaryContextService recentSummaryContextService;
+
+    public DaySummaryCacheListener(RecentSummaryContextService recentSummaryContextService) {
+        this.recentSummaryContextService = recentSummaryContextService;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<DaySummary> event) {
+        recentSummaryContextService.evict(event.getSource().getUserId());
+    }
+}
@@ -0,0 +1,44 @@
+package com.spring.ollama.event;
+
+import com.spring.ollama.entity.DaySummary;
+import com.spring.ollama.entity.MealPlan;
+import com.spring.ollama.entity.WorkoutPlan;
+import com.spring.ollama.service.ProgressRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps progress rollups current: every saved DaySummary, WorkoutPlan or MealPlan
+ * refreshes the matching day (and, by delta, week) rollup for its user.
+ * Rollup failures are logged, never propagated to the original write.
+ */
+@Component
+public class ProgressRollupListener extends AbstractMongoEventListener<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProgressRollupListener.class);
+
+    private final ProgressRollupService progressRollupService;
+
+    public ProgressRollupListener(ProgressRollupService progressRollupService) {
+        this.progressRollupService = progressRollupService;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        try {
+            if (source instanceof WorkoutPlan plan && plan.getTargetDate() != null) {
+                progressRollupService.refreshWorkouts(plan.getUserId(), plan.getTargetDate());
+            } else if (source instanceof MealPlan plan && plan.getTargetDate() != null) {
+                progressRollupService.refreshMeals(plan.getUserId(), plan.getTargetDate());
+            } else if (source instanceof DaySummary summary && summary.getDate() != null) {
+                progressRollupService.refreshSummaries(summary.getUserId(), summary.getDate());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to update progress rollup for {}", source.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.spring.ollama.event;
+
+import com.spring.ollama.entity.DailyRoutine;
+import com.spring.ollama.entity.User;
+import com.spring.ollama.service.UserContextSnapshotService;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies User and DailyRoutine saves to the cached user context snapshots
+ */
+@Component
+public class UserContextSnapshotListener extends AbstractMongoEventListener<Object> {
+
+    private final UserContextSnapshotService userContextSnapshotService;
+
+    public UserContextSnapshotListener(UserContextSnapshotService userContextSnapshotService) {
+        this.userContextSnapshotService = userContextSnapshotService;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        if (source instanceof User user) {
+            userContextSnapshotService.onUserSaved(user);
+        } else if (source instanceof DailyRoutine routine) {
+            userContextSnapshotService.onRoutineSaved(routine);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.spring.ollama.event;
+
+/**
+ * Published after a user's routine data has been wiped, so anything caching
+ * per-user artifacts (context strings, snapshots, stats) can drop them.
+ */
+public class UserDataResetEvent {
+
+    private final String userId;
+    private final long deletedDocuments;
+
+    public UserDataResetEvent(String userId, long deletedDocuments) {
+        this.userId = userId;
+        this.deletedDocuments = deletedDocuments;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public long getDeletedDocuments() {
+        return deletedDocuments;
+    }
+}
@@ -4,7 +4,9 @@
 package com.spring.ollama.repository;
 
 import com.spring.ollama.entity.DailyRoutine;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,6 +18,10 @@ public interface DailyRoutineRepository extends MongoRepository<DailyRoutine, St
     // Find all routines for a user, ordered by day number
     List<DailyRoutine> findByUserIdOrderByDayNumberAsc(String userId);
 
+    // Page of routines after a given day, without the plan body (keyset pagination on user_day_unique)
+    @Query(value = "{ 'userId': ?0, 'dayNumber': { $gt: ?1 } }", fields = "{ 'structuredPlan': 0 }")
+    List<DailyRoutine> findSummariesAfterDay(String userId, int afterDay, Pageable pageable);
+
     // Find specific day for a user
     Optional<DailyRoutine> findByUserIdAndDayNumber(String userId, int dayNumber);
 
@@ -25,6 +31,9 @@ public interface DailyRoutineRepository extends MongoRepository<DailyRoutine, St
     // Find completed routines for a user
     List<DailyRoutine> findByUserIdAndIsCompletedTrue(String userId);
 
+    // Count completed routines for a user (index-only)
+    long countByUserIdAndIsCompletedTrue(String userId);
+
     // Get the latest routine for a user
     Optional<DailyRoutine> findFirstByUserIdOrderByDayNumberDesc(String userId);
 }
@@ -1,6 +1,7 @@
 package com.spring.ollama.repository;
 
 import com.spring.ollama.entity.DaySummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -29,9 +30,11 @@ public interface DaySummaryRepository extends MongoRepository<DaySummary, String
     List<DaySummary> findByUserIdAndOverallPerformanceOrderByDateDesc(
             String userId, String performance);
 
-    // Get last N summaries for AI context
-    @Query("{ 'userId': ?0 }")
-    List<DaySummary> findRecentSummaries(String userId);
+    // Get last N summaries for AI context (N = page size), newest first, only the fields the prompt uses
+    @Query(value = "{ 'userId': ?0 }",
+            fields = "{ 'date': 1, 'overallPerformance': 1, 'summary': 1, 'achievements': 1, 'improvements': 1, 'nextDayFocus': 1 }",
+            sort = "{ 'date': -1 }")
+    List<DaySummary> findRecentSummaries(String userId, Pageable pageable);
 
     // Find yesterday's summary
     default Optional<DaySummary> findYesterdaySummary(String userId) {
@@ -0,0 +1,19 @@
+package com.spring.ollama.repository;
+
+import com.spring.ollama.entity.ProgressRollup;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository for pre-aggregated progress rollups
+ */
+@Repository
+public interface ProgressRollupRepository extends MongoRepository<ProgressRollup, String> {
+
+    // Rollups of one period type from a start date onwards (trend series)
+    List<ProgressRollup> findByUserIdAndPeriodAndPeriodStartGreaterThanEqualOrderByPeriodStartAsc(
+            String userId, String period, LocalDate from);
+}
@@ -4,6 +4,7 @@ import com.spring.ollama.entity.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,6 +14,9 @@ public interface UserRepository extends MongoRepository<User, String> {
 
     Optional<User> findByUsername(String username);
 
+    // Single $or query over the unique email and username indexes (at most two matches)
+    List<User> findByEmailOrUsername(String email, String username);
+
     boolean existsByEmail(String email);
 
     boolean existsByUsername(String username);
@@ -1,6 +1,8 @@
 package com.spring.ollama.service;
 
 
+import com.spring.ollama.config.LlmMetricsAdvisor;
+import com.spring.ollama.config.LogPayloads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
@@ -18,26 +20,30 @@ public class AiService {
     }
 
     public String ask(String question) {
-        logger.info("Received question: {}", question);
+        logger.info("Received question: {}", LogPayloads.preview(question));
         long startTime = System.currentTimeMillis();
 
         try {
             logger.debug("Sending prompt to ChatClient");
             String response = chatClient
                     .prompt(question)
+                    .advisors(a -> a.param(LlmMetricsAdvisor.PROMPT_TYPE, "ask"))
                     .call()
                     .content();
 
             long endTime = System.currentTimeMillis();
             logger.info("Successfully processed question in {} ms. Response length: {} characters",
                     (endTime - startTime), response.length());
-            logger.debug("Response: {}", response);
+            logger.debug("Response: {}", LogPayloads.preview(response));
+            if (logger.isTraceEnabled() && LogPayloads.sampled()) {
+                logger.trace("Full response: {}", response);
+            }
 
             return response;
         } catch (Exception e) {
             long endTime = System.currentTimeMillis();
             logger.error("Error processing question after {} ms: {}",
-                    (endTime - startTime), question, e);
+                    (endTime - startTime), LogPayloads.preview(question), e);
             throw new RuntimeException("Failed to get AI response", e);
         }
     }
@@ -1,11 +1,17 @@
 package com.spring.ollama.service;
 
 import com.spring.ollama.dto.*;
+import com.spring.ollama.entity.RefreshToken;
 import com.spring.ollama.entity.User;
 import com.spring.ollama.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -21,13 +27,23 @@ public class AuthService {
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
-
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder,JwtService jwtService) {
+    private final UserCacheService userCacheService;
+    private final MongoTemplate mongoTemplate;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+
+    public AuthService(UserRepository userRepository, PasswordHashingService passwordHashingService,JwtService jwtService,
+                       UserCacheService userCacheService, MongoTemplate mongoTemplate,
+                       RefreshTokenService refreshTokenService, TokenRevocationService tokenRevocationService) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtService=jwtService;
+        this.userCacheService = userCacheService;
+        this.mongoTemplate = mongoTemplate;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
         logger.info("AuthService initialized");
     }
 
@@ -38,17 +54,27 @@ public class AuthService {
 // 3. BACKEND: AuthService.java - Register Method
 // ==========================================
     public AuthResponse register(RegisterRequest request) {
+        return register(request, null);
+    }
+
+    public AuthResponse register(RegisterRequest request, String clientIp) {
         logger.info("Attempting registration for email: {}", request.getEmail());
 
+        // Throttled before any lookup or hashing; AuthThrottledException propagates (429)
+        passwordHashingService.checkThrottle(clientIp, null);
+
         try {
+            // Check email and username in one round trip
+            List<User> existing = userRepository.findByEmailOrUsername(request.getEmail(), request.getUsername());
+
             // Check if email already exists
-            if (userRepository.findByEmail(request.getEmail()).isPresent()) {
+            if (existing.stream().anyMatch(u -> request.getEmail() != null && request.getEmail().equals(u.getEmail()))) {
                 logger.warn("Email already exists: {}", request.getEmail());
                 return new AuthResponse(false, "Email already registered");
             }
 
             // Check if username already exists
-            if (userRepository.findByUsername(request.getUsername()).isPresent()) {
+            if (!existing.isEmpty()) {
                 logger.warn("Username already exists: {}", request.getUsername());
                 return new AuthResponse(false, "Username already taken");
             }
@@ -57,7 +83,7 @@ public class AuthService {
             User user = new User();
             user.setEmail(request.getEmail());
             user.setUsername(request.getUsername());
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
             user.setFirstName(request.getFirstName());
             user.setLastName(request.getLastName());
             user.setPhoneNumber(request.getPhoneNumber());
@@ -68,15 +94,15 @@ public class AuthService {
 
             // Save user
             User savedUser = userRepository.save(user);
-
-            // Generate token
-            String token = jwtService.generateToken(savedUser.getEmail());
+            userCacheService.put(savedUser);
 
             logger.info("User registered successfully: {}, ID: {}", savedUser.getEmail(), savedUser.getId());
 
             // IMPORTANT: Return user object with ID
-            return new AuthResponse(true, "Registration successful", token, savedUser);
+            return issueTokens("Registration successful", savedUser);
 
+        } catch (AuthThrottledException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error during registration", e);
             return new AuthResponse(false, "Registration failed: " + e.getMessage());
@@ -87,25 +113,38 @@ public class AuthService {
 // 2. BACKEND: AuthService.java - Login Method
 // ==========================================
     public AuthResponse login(CompleteFitnessPlanRequest.LoginRequest request) {
+        return login(request, null);
+    }
+
+    public AuthResponse login(CompleteFitnessPlanRequest.LoginRequest request, String clientIp) {
         logger.info("Attempting login for: {}", request.getEmailOrUsername());
 
+        // Throttled before any lookup or hashing; AuthThrottledException propagates (429).
+        // The account bucket is only checked here and charged below when verification fails.
+        passwordHashingService.checkThrottle(clientIp, request.getEmailOrUsername());
+
         try {
-            // Find user by email or username
-            Optional<User> userOpt = userRepository.findByEmail(request.getEmailOrUsername());
-            if (userOpt.isEmpty()) {
-                userOpt = userRepository.findByUsername(request.getEmailOrUsername());
-            }
+            // Find user by email or username in a single query; an email match wins
+            // if the identifier is one user's email and another user's username
+            String identifier = request.getEmailOrUsername();
+            List<User> matches = userRepository.findByEmailOrUsername(identifier, identifier);
+            Optional<User> userOpt = matches.stream()
+                    .filter(u -> identifier != null && identifier.equals(u.getEmail()))
+                    .findFirst()
+                    .or(() -> matches.stream().findFirst());
 
             if (userOpt.isEmpty()) {
                 logger.warn("User not found: {}", request.getEmailOrUsername());
+                passwordHashingService.recordFailedAttempt(identifier);
                 return new AuthResponse(false, "Invalid credentials");
             }
 
             User user = userOpt.get();
 
             // Verify password
-            if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
                 logger.warn("Invalid password for user: {}", user.getEmail());
+                passwordHashingService.recordFailedAttempt(identifier);
                 return new AuthResponse(false, "Invalid credentials");
             }
 
@@ -115,30 +154,118 @@ public class AuthService {
                 return new AuthResponse(false, "Account is disabled");
             }
 
-            // Generate JWT token
-            String token = jwtService.generateToken(user.getEmail());
-
-            // Update last login
+            // Update last login with a partial $set instead of re-saving the whole document
             user.setLastLogin(LocalDateTime.now());
-            userRepository.save(user);
+            Update loginUpdate = new Update().set("lastLogin", user.getLastLogin());
+
+            // Cost factor was raised since this hash was made: re-hash while we have the raw password
+            if (passwordHashingService.needsRehash(user.getPassword())) {
+                user.setPassword(passwordHashingService.encode(request.getPassword()));
+                loginUpdate.set("password", user.getPassword());
+                logger.info("Upgraded password hash for user: {}", user.getId());
+            }
+
+            // Cache the document as stored after the update, not the copy read at the start of the
+            // request - a concurrent write (e.g. currentDailyRoutineId) must not be overwritten
+            User updated = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(user.getId())),
+                    loginUpdate, FindAndModifyOptions.options().returnNew(true), User.class);
+            if (updated != null) {
+                userCacheService.put(updated);
+                user = updated;
+            } else {
+                userCacheService.evict(user.getId());
+            }
 
             logger.info("Login successful for user: {}, ID: {}", user.getEmail(), user.getId());
 
             // IMPORTANT: Return user object with ID
-            return new AuthResponse(true, "Login successful", token, user);
+            return issueTokens("Login successful", user);
 
+        } catch (AuthThrottledException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error during login", e);
             return new AuthResponse(false, "Login failed: " + e.getMessage());
         }
     }
 
+    /**
+     * Exchange a refresh token for a new access token. Refresh tokens are single-use:
+     * the presented one is consumed and a new one is returned (rotation).
+     */
+    public AuthResponse refresh(String rawRefreshToken) {
+        try {
+            Optional<RefreshToken> redeemed = refreshTokenService.redeem(rawRefreshToken);
+            if (redeemed.isEmpty()) {
+                logger.warn("Refresh rejected: unknown or expired refresh token");
+                return new AuthResponse(false, "Invalid or expired refresh token");
+            }
+
+            Optional<User> userOpt = userCacheService.findById(redeemed.get().getUserId());
+            if (userOpt.isEmpty() || !userOpt.get().isEnabled()) {
+                logger.warn("Refresh rejected for user: {}", redeemed.get().getUserId());
+                return new AuthResponse(false, "Account is not available");
+            }
+
+            return issueTokens("Token refreshed", userOpt.get());
+
+        } catch (Exception e) {
+            logger.error("Error during token refresh", e);
+            return new AuthResponse(false, "Token refresh failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Log out: revoke the presented access token and refresh token. With allSessions,
+     * every access token of the user issued so far and all their refresh tokens are revoked.
+     */
+    public AuthResponse logout(String accessToken, String rawRefreshToken, boolean allSessions) {
+        try {
+            Optional<Claims> claims = accessToken != null ? jwtService.parseVerifiedClaims(accessToken) : Optional.empty();
+            if (claims.isEmpty() && (rawRefreshToken == null || rawRefreshToken.isBlank())) {
+                return new AuthResponse(false, "No valid token to log out");
+            }
+
+            claims.ifPresent(tokenRevocationService::revokeAccessToken);
+            refreshTokenService.revoke(rawRefreshToken);
+
+            if (allSessions) {
+                if (claims.isEmpty()) {
+                    return new AuthResponse(false, "A valid access token is required to log out all sessions");
+                }
+                String subject = claims.get().getSubject();
+                tokenRevocationService.revokeAllSessions(subject);
+                userRepository.findByEmail(subject)
+                        .ifPresent(user -> refreshTokenService.revokeAllForUser(user.getId()));
+            }
+
+            logger.info("Logout successful{}", allSessions ? " (all sessions)" : "");
+            return new AuthResponse(true, "Logged out");
+
+        } catch (Exception e) {
+            logger.error("Error during logout", e);
+            return new AuthResponse(false, "Logout failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Short-lived access token plus a refresh token for the user
+     */
+    private AuthResponse issueTokens(String message, User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtService.USER_ID_CLAIM, user.getId());
+        String token = jwtService.generateToken(user.getEmail(), claims);
+        AuthResponse response = new AuthResponse(true, message, token, user);
+        response.setRefreshToken(refreshTokenService.issue(user));
+        response.setExpiresIn(jwtService.getAccessTokenTtlMs() / 1000);
+        return response;
+    }
 
     /**
      * Get user by ID
      */
     public Optional<User> getUserById(String userId) {
-        return userRepository.findById(userId);
+        return userCacheService.findById(userId);
     }
 
     /**
@@ -147,6 +274,7 @@ public class AuthService {
     public User updateUserProfile(String userId, User updatedUser) {
         logger.info("Updating profile for user: {}", userId);
 
+        // Read-modify-write goes to Mongo, never to the shared cached instance
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) {
             throw new RuntimeException("User not found");
@@ -168,7 +296,9 @@ public class AuthService {
         if(updatedUser.getDietaryPreference() !=null)user.setDietaryPreference(updatedUser.getDietaryPreference());
         user.setUpdatedAt(LocalDateTime.now());
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userCacheService.put(savedUser);
+        return savedUser;
     }
 
     /**
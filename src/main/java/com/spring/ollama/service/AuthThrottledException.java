@@ -0,0 +1,19 @@
+package com.spring.ollama.service;
+
+/**
+ * Thrown when an authentication request is refused for load reasons: the client or account
+ * exceeded its attempt rate, or the password hashing pool is saturated. Maps to HTTP 429.
+ */
+public class AuthThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AuthThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
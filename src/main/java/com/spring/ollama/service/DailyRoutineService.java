@@ -1,18 +1,43 @@
 
 package com.spring.ollama.service;
 
+import com.spring.ollama.dto.RoutinePageResponse;
+import com.spring.ollama.dto.RoutineStatsResponse;
+import com.spring.ollama.dto.RoutineSummary;
 import com.spring.ollama.entity.DailyRoutine;
+import com.spring.ollama.entity.DayCounter;
+import com.spring.ollama.entity.DaySummary;
+import com.spring.ollama.entity.MealPlan;
+import com.spring.ollama.entity.StructuredJourney;
 import com.spring.ollama.entity.User;
+import com.spring.ollama.entity.WorkoutPlan;
+import com.spring.ollama.event.UserDataResetEvent;
 import com.spring.ollama.repository.DailyRoutineRepository;
-import com.spring.ollama.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class DailyRoutineService {
@@ -23,21 +48,38 @@ public class DailyRoutineService {
     private DailyRoutineRepository dailyRoutineRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    // Per-user collections wiped on reset, each with a single deleteMany on userId
+    private static final List<Class<?>> USER_SCOPED_DATA = List.of(
+            DailyRoutine.class, DaySummary.class, WorkoutPlan.class, MealPlan.class);
 
     /**
-     * Save a new daily routine for a user
+     * Save a new daily routine for a user. The plan was generated for expectedDay (the snapshot's
+     * next day); the day is only claimed here, after generation succeeded, so failed generations
+     * never use up a day number.
      */
-    public DailyRoutine saveDailyRoutine(String userId, String structuredPlanJson) {
-        logger.info("Saving daily routine for user: {}", userId);
+    public DailyRoutine saveDailyRoutine(String userId, StructuredJourney structuredPlan, int expectedDay) {
+        logger.info("Saving daily routine for user: {}, day: {}", userId, expectedDay);
 
-        // Get the next day number for this user
-        int nextDayNumber = getNextDayNumber(userId);
+        int nextDayNumber = claimDayNumber(userId, expectedDay);
+        if (nextDayNumber != expectedDay) {
+            renumber(structuredPlan, expectedDay, nextDayNumber);
+        }
 
         DailyRoutine routine = new DailyRoutine();
         routine.setUserId(userId);
         routine.setDayNumber(nextDayNumber);
-        routine.setStructuredPlanJson(structuredPlanJson);
+        routine.setStructuredPlan(structuredPlan);
 
         DailyRoutine savedRoutine = dailyRoutineRepository.save(routine);
 
@@ -51,28 +93,96 @@ public class DailyRoutineService {
     }
 
     /**
-     * Get the next day number for a user
+     * Claim expectedDay with a conditional $inc (counter must still be at expectedDay - 1).
+     * If another generation or a stale snapshot got there first, take the next free day instead.
+     */
+    private int claimDayNumber(String userId, int expectedDay) {
+        DayCounter claimed = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(userId).and("seq").is(expectedDay - 1)),
+                new Update().inc("seq", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                DayCounter.class);
+        if (claimed != null) {
+            return claimed.getSeq();
+        }
+
+        int dayNumber = getNextDayNumber(userId);
+        if (dayNumber != expectedDay) {
+            logger.warn("Day {} for user {} was already taken, saving the plan as day {}",
+                    expectedDay, userId, dayNumber);
+        }
+        return dayNumber;
+    }
+
+    /**
+     * Get the next day number for a user.
+     * Uses an atomic $inc on the user's counter so concurrent generations never get the same day.
      */
     private int getNextDayNumber(String userId) {
-        Optional<DailyRoutine> latestRoutine =
-                dailyRoutineRepository.findFirstByUserIdOrderByDayNumberDesc(userId);
+        Query counterQuery = Query.query(Criteria.where("_id").is(userId));
 
-        return latestRoutine.map(routine -> routine.getDayNumber() + 1).orElse(1);
+        DayCounter counter = mongoTemplate.findAndModify(
+                counterQuery,
+                new Update().inc("seq", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                DayCounter.class);
+
+        if (counter == null) {
+            seedDayCounter(userId, counterQuery);
+            counter = mongoTemplate.findAndModify(
+                    counterQuery,
+                    new Update().inc("seq", 1),
+                    FindAndModifyOptions.options().returnNew(true).upsert(true),
+                    DayCounter.class);
+        }
+
+        return counter.getSeq();
     }
 
     /**
-     * Update user's current routine reference
+     * Move a plan generated for one day onto the day it is actually saved as
      */
-    private void updateUserCurrentRoutine(String userId, String routineId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            user.setCurrentDailyRoutineId(routineId);
-            user.setLastActiveDate(java.time.LocalDate.now());
-            userRepository.save(user);
+    private void renumber(StructuredJourney structuredPlan, int fromDay, int toDay) {
+        structuredPlan.setCurrentDay(toDay);
+        for (StructuredJourney.DayPlan dayPlan : structuredPlan.getDays()) {
+            if (dayPlan.getDay() == fromDay) {
+                dayPlan.setDay(toDay);
+            }
+        }
+    }
+
+    /**
+     * Create the counter for users that already have routines from before counters existed.
+     * $max keeps this safe if two requests seed at the same time.
+     */
+    private void seedDayCounter(String userId, Query counterQuery) {
+        int latestDay = dailyRoutineRepository.findFirstByUserIdOrderByDayNumberDesc(userId)
+                .map(DailyRoutine::getDayNumber)
+                .orElse(0);
+
+        try {
+            mongoTemplate.upsert(counterQuery, new Update().max("seq", latestDay), DayCounter.class);
+        } catch (DuplicateKeyException e) {
+            // Another request created the counter first - its $max covers the same value
+            logger.debug("Day counter for user {} was seeded concurrently", userId);
         }
     }
 
+    /**
+     * Update user's current routine reference (partial $set, no read of the user document)
+     */
+    private void updateUserCurrentRoutine(String userId, String routineId) {
+        // Partial $set; the returned document is written through to the user cache
+        User updated = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(userId)),
+                new Update()
+                        .set("currentDailyRoutineId", routineId)
+                        .set("lastActiveDate", LocalDate.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+        userCacheService.put(updated);
+    }
+
     /**
      * Get all routines for a user
      */
@@ -81,6 +191,26 @@ public class DailyRoutineService {
         return dailyRoutineRepository.findByUserIdOrderByDayNumberAsc(userId);
     }
 
+    /**
+     * Get one page of routine summaries after the given day (exclusive), ordered by day number.
+     * Fetches limit + 1 rows to know whether another page exists without a count query.
+     */
+    public RoutinePageResponse getRoutinePage(String userId, int afterDay, int limit) {
+        logger.info("Fetching routine page for user: {}, afterDay: {}, limit: {}", userId, afterDay, limit);
+
+        List<DailyRoutine> rows = dailyRoutineRepository.findSummariesAfterDay(
+                userId, afterDay, PageRequest.of(0, limit + 1, Sort.by(Sort.Direction.ASC, "dayNumber")));
+
+        boolean hasMore = rows.size() > limit;
+        List<RoutineSummary> routines = rows.stream()
+                .limit(limit)
+                .map(RoutineSummary::from)
+                .collect(Collectors.toList());
+
+        Integer nextAfterDay = hasMore ? routines.get(routines.size() - 1).getDayNumber() : null;
+        return new RoutinePageResponse(userId, routines, hasMore, nextAfterDay);
+    }
+
     /**
      * Get a specific day's routine
      */
@@ -120,23 +250,132 @@ public class DailyRoutineService {
      * Get total completed routines count for a user
      */
     public long getCompletedRoutinesCount(String userId) {
-        return dailyRoutineRepository.findByUserIdAndIsCompletedTrue(userId).size();
+        return dailyRoutineRepository.countByUserIdAndIsCompletedTrue(userId);
+    }
+
+    /**
+     * Completion stats computed server-side on the (userId, dayNumber, isCompleted) index:
+     * one $facet aggregation for totals / recent window / latest day, plus two index-only
+     * lookups for the current streak. No routine body is ever loaded.
+     */
+    public RoutineStatsResponse getRoutineStats(String userId, int windowDays) {
+        logger.info("Computing routine stats for user: {}, window: {}", userId, windowDays);
+
+        AggregationExpression completedFlag = ConditionalOperators
+                .when(Criteria.where("isCompleted").is(true)).then(1).otherwise(0);
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").is(userId)),
+                Aggregation.sort(Sort.Direction.DESC, "dayNumber"),
+                Aggregation.project("dayNumber", "isCompleted").andExclude("_id"),
+                Aggregation.facet(
+                                Aggregation.group().count().as("total").sum(completedFlag).as("completed"))
+                        .as("totals")
+                        .and(Aggregation.limit(windowDays),
+                                Aggregation.group().count().as("total").sum(completedFlag).as("completed"))
+                        .as("window")
+                        .and(Aggregation.limit(1))
+                        .as("latest")
+        );
+
+        Document result = mongoTemplate.aggregate(aggregation, DailyRoutine.class, Document.class)
+                .getUniqueMappedResult();
+
+        RoutineStatsResponse stats = new RoutineStatsResponse();
+        stats.setUserId(userId);
+        stats.setWindowDays(windowDays);
+
+        Document totals = firstFacet(result, "totals");
+        Document window = firstFacet(result, "window");
+        Document latest = firstFacet(result, "latest");
+
+        if (totals == null || latest == null) {
+            return stats;
+        }
+
+        stats.setTotalRoutines(totals.get("total", Number.class).longValue());
+        stats.setCompletedRoutines(totals.get("completed", Number.class).longValue());
+        stats.setWindowRoutines(window.get("total", Number.class).longValue());
+        stats.setWindowCompleted(window.get("completed", Number.class).longValue());
+        stats.setCompletionRate((double) stats.getWindowCompleted() / stats.getWindowRoutines());
+
+        int latestDay = latest.get("dayNumber", Number.class).intValue();
+        boolean latestCompleted = Boolean.TRUE.equals(latest.getBoolean("isCompleted"));
+        stats.setLatestDayNumber(latestDay);
+        stats.setCurrentStreak(computeCurrentStreak(userId, latestDay, latestCompleted));
+
+        return stats;
+    }
+
+    /**
+     * Consecutive completed days ending at the latest routine. An unfinished latest routine
+     * (today's, still in progress) does not break the streak.
+     */
+    private long computeCurrentStreak(String userId, int latestDay, boolean latestCompleted) {
+        Criteria missCriteria = Criteria.where("userId").is(userId).and("isCompleted").is(false);
+        missCriteria = latestCompleted
+                ? missCriteria.and("dayNumber").lte(latestDay)
+                : missCriteria.and("dayNumber").lt(latestDay);
+
+        Query lastMissQuery = Query.query(missCriteria)
+                .with(Sort.by(Sort.Direction.DESC, "dayNumber"))
+                .limit(1);
+        lastMissQuery.fields().include("dayNumber").exclude("_id");
+
+        DailyRoutine lastMiss = mongoTemplate.findOne(lastMissQuery, DailyRoutine.class);
+        int lastMissDay = lastMiss != null ? lastMiss.getDayNumber() : 0;
+
+        return mongoTemplate.count(Query.query(Criteria.where("userId").is(userId)
+                .and("isCompleted").is(true)
+                .and("dayNumber").gt(lastMissDay)), DailyRoutine.class);
+    }
+
+    private Document firstFacet(Document result, String facet) {
+        if (result == null) {
+            return null;
+        }
+        List<Document> values = result.getList(facet, Document.class);
+        return values == null || values.isEmpty() ? null : values.get(0);
     }
 
     /**
-     * Delete all routines for a user (for reset)
+     * Delete all routines for a user (for reset), cascading to their day summaries,
+     * workout and meal plans and day counter. One deleteMany per collection keyed on
+     * the userId index, plus a partial $unset on the user - nothing is loaded first.
      */
-    public void deleteAllRoutinesForUser(String userId) {
+    public long deleteAllRoutinesForUser(String userId) {
         logger.info("Deleting all routines for user: {}", userId);
-        List<DailyRoutine> routines = dailyRoutineRepository.findByUserIdOrderByDayNumberAsc(userId);
-        dailyRoutineRepository.deleteAll(routines);
-
-        // Clear user's current routine reference
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            user.setCurrentDailyRoutineId(null);
-            userRepository.save(user);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        long deleted = 0;
+
+        try {
+            Query byUser = Query.query(Criteria.where("userId").is(userId));
+            for (Class<?> entity : USER_SCOPED_DATA) {
+                long removed = mongoTemplate.remove(byUser, entity).getDeletedCount();
+                logger.debug("Removed {} {} documents for user: {}", removed, entity.getSimpleName(), userId);
+                deleted += removed;
+            }
+
+            // Restart day numbering from 1
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(userId)), DayCounter.class);
+
+            // Clear user's current routine reference
+            userCacheService.put(mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(userId)),
+                    new Update().unset("currentDailyRoutineId"),
+                    FindAndModifyOptions.options().returnNew(true), User.class));
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("routines.reset")
+                    .description("Cascade delete of a user's routine data")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
+
+        logger.info("Reset user: {}, removed {} documents", userId, deleted);
+        eventPublisher.publishEvent(new UserDataResetEvent(userId, deleted));
+        return deleted;
     }
-}
\ No newline at end of file
+}
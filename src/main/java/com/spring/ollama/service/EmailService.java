@@ -1,16 +1,37 @@
 package com.spring.ollama.service;
 
+import com.spring.ollama.dto.EmailBatchResult;
+import com.spring.ollama.dto.EmailMessageRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 @Service
 public class EmailService {
@@ -18,12 +39,32 @@ public class EmailService {
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
     private final JavaMailSender mailSender;
+    private final EmailTemplateService emailTemplateService;
+    private final ThreadPoolTaskExecutor mailBatchExecutor;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
 
-    public EmailService(JavaMailSender mailSender) {
+    // Messages sent over a single SMTP connection before it is closed
+    @Value("${mail.batch.size:50}")
+    private int batchSize;
+
+    // Scheduled-report emails waiting for the next batch flush
+    private final Queue<PendingEmail> pendingReportEmails = new ConcurrentLinkedQueue<>();
+    private volatile boolean shuttingDown;
+
+    public EmailService(JavaMailSender mailSender,
+                        EmailTemplateService emailTemplateService,
+                        @Qualifier("mailBatchExecutor") ThreadPoolTaskExecutor mailBatchExecutor,
+                        MeterRegistry meterRegistry,
+                        ObservationRegistry observationRegistry) {
         this.mailSender = mailSender;
+        this.emailTemplateService = emailTemplateService;
+        this.mailBatchExecutor = mailBatchExecutor;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
         logger.info("EmailService initialized");
     }
 
@@ -56,25 +97,7 @@ public class EmailService {
         logger.info("Sending email with attachment to: {}", toEmail);
 
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject(subject);
-            helper.setText(body, true); // true = HTML
-
-            // Attach PDF if provided
-            if (pdfFilePath != null && !pdfFilePath.isEmpty()) {
-                File file = new File(pdfFilePath);
-                if (file.exists()) {
-                    FileSystemResource fileResource = new FileSystemResource(file);
-                    helper.addAttachment(file.getName(), fileResource);
-                    logger.debug("Attached PDF: {}", file.getName());
-                } else {
-                    logger.warn("PDF file not found: {}", pdfFilePath);
-                }
-            }
+            MimeMessage message = createMimeMessage(toEmail, subject, body, pdfFilePath);
 
             mailSender.send(message);
             logger.info("Email with attachment sent successfully to: {}", toEmail);
@@ -86,75 +109,131 @@ public class EmailService {
     }
 
     /**
-     * Send fitness plan email with PDF
+     * Build an HTML MimeMessage with an optional PDF attachment
      */
-    public void sendFitnessPlanEmail(String toEmail, String planContent, String pdfFilePath) {
-        logger.info("Sending fitness plan email to: {}", toEmail);
+    private MimeMessage createMimeMessage(String toEmail, String subject, String body, String pdfFilePath)
+            throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
 
-        String subject = "Your Personalized Fitness Plan";
-        String body = buildFitnessPlanEmailBody(planContent, pdfFilePath);
+        helper.setFrom(fromEmail);
+        helper.setTo(toEmail);
+        helper.setSubject(subject);
+        helper.setText(body, true); // true = HTML
 
+        // Attach PDF if provided
         if (pdfFilePath != null && !pdfFilePath.isEmpty()) {
-            sendEmailWithAttachment(toEmail, subject, body, pdfFilePath);
-        } else {
-            sendSimpleEmail(toEmail, subject, body);
+            File file = new File(pdfFilePath);
+            if (file.exists()) {
+                FileSystemResource fileResource = new FileSystemResource(file);
+                helper.addAttachment(file.getName(), fileResource);
+                logger.debug("Attached PDF: {}", file.getName());
+            } else {
+                logger.warn("PDF file not found: {}", pdfFilePath);
+            }
         }
+
+        return message;
     }
 
     /**
-     * Build HTML email body for fitness plan
+     * Send many emails, reusing one SMTP connection per chunk of mail.batch.size messages.
+     * Chunks run on the mail batch executor, which bounds the number of open SMTP connections.
      */
-    private String buildFitnessPlanEmailBody(String planContent, String pdfFilePath) {
-        StringBuilder html = new StringBuilder();
-
-        html.append("<!DOCTYPE html>");
-        html.append("<html>");
-        html.append("<head>");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }");
-        html.append("h1 { color: #2c3e50; }");
-        html.append("h2 { color: #34495e; }");
-        html.append(".container { max-width: 800px; margin: 0 auto; padding: 20px; }");
-        html.append(".header { background-color: #3498db; color: white; padding: 20px; text-align: center; }");
-        html.append(".content { background-color: #f9f9f9; padding: 20px; margin-top: 20px; }");
-        html.append(".footer { margin-top: 30px; padding: 20px; background-color: #ecf0f1; text-align: center; }");
-        html.append("</style>");
-        html.append("</head>");
-        html.append("<body>");
-        html.append("<div class='container'>");
-
-        html.append("<div class='header'>");
-        html.append("<h1>🏋️ Your Personalized Fitness Plan</h1>");
-        html.append("</div>");
-
-        html.append("<div class='content'>");
-        html.append("<h2>Hello!</h2>");
-        html.append("<p>Your personalized fitness plan has been generated and is ready for you.</p>");
+    public EmailBatchResult sendEmailsBatch(List<EmailMessageRequest> emails) {
+        logger.info("Sending batch of {} emails (chunk size: {})", emails.size(), batchSize);
+        long startTime = System.nanoTime();
+
+        EmailBatchResult result = new EmailBatchResult();
+        result.setTotal(emails.size());
+        sendBatch(emails).forEach(email -> result.getFailedRecipients().add(email.getToEmail()));
+
+        long durationMs = (System.nanoTime() - startTime) / 1_000_000;
+        result.setFailed(result.getFailedRecipients().size());
+        result.setSent(result.getTotal() - result.getFailed());
+        result.setDurationMs(durationMs);
+        result.setMessagesPerSecond(durationMs > 0 ? result.getSent() * 1000.0 / durationMs : result.getSent());
+
+        logger.info("Email batch finished: {}", result);
+        return result;
+    }
 
-        if (pdfFilePath != null && !pdfFilePath.isEmpty()) {
-            html.append("<p><strong>📎 Your fitness plan is attached as a PDF document.</strong></p>");
+    /**
+     * Send the emails in chunks and return the ones that failed (by identity, so two emails to
+     * the same address are told apart)
+     */
+    private Set<EmailMessageRequest> sendBatch(List<EmailMessageRequest> emails) {
+        Set<EmailMessageRequest> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<MimeMessage> messages = new ArrayList<>();
+        Map<Object, EmailMessageRequest> requestByMessage = new IdentityHashMap<>();
+
+        for (EmailMessageRequest email : emails) {
+            try {
+                MimeMessage message = createMimeMessage(email.getToEmail(), email.getSubject(),
+                        email.getBody(), email.getAttachmentPath());
+                messages.add(message);
+                requestByMessage.put(message, email);
+            } catch (MessagingException e) {
+                logger.error("Failed to build email for: {}", email.getToEmail(), e);
+                failed.add(email);
+            }
+        }
+
+        List<CompletableFuture<List<EmailMessageRequest>>> futures = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i += batchSize) {
+            List<MimeMessage> chunk = messages.subList(i, Math.min(i + batchSize, messages.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> sendChunk(chunk, requestByMessage), mailBatchExecutor));
+        }
+
+        for (CompletableFuture<List<EmailMessageRequest>> future : futures) {
+            failed.addAll(future.join());
         }
 
-        html.append("<p>This comprehensive plan includes:</p>");
-        html.append("<ul>");
-        html.append("<li>✅ Customized workout schedule</li>");
-        html.append("<li>✅ Detailed meal plan with macros</li>");
-        html.append("<li>✅ Supplement recommendations</li>");
-        html.append("</ul>");
+        meterRegistry.counter("mail.batch.messages", "outcome", "sent").increment(emails.size() - failed.size());
+        meterRegistry.counter("mail.batch.messages", "outcome", "failed").increment(failed.size());
+        return failed;
+    }
+
+    /**
+     * Send one chunk over a single transport connection, returning the emails that failed
+     */
+    private List<EmailMessageRequest> sendChunk(List<MimeMessage> chunk, Map<Object, EmailMessageRequest> requestByMessage) {
+        List<EmailMessageRequest> failed = new ArrayList<>();
+        try {
+            mailSender.send(chunk.toArray(new MimeMessage[0]));
 
-        html.append("<p><em>Remember: Consistency is key! Stay committed to your plan and track your progress regularly.</em></p>");
-        html.append("</div>");
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                chunk.forEach(message -> failed.add(requestByMessage.get(message)));
+            } else {
+                e.getFailedMessages().keySet().forEach(message -> failed.add(requestByMessage.get(message)));
+            }
+            logger.error("{} of {} emails in chunk failed", failed.size(), chunk.size(), e);
 
-        html.append("<div class='footer'>");
-        html.append("<p>💪 Good luck on your fitness journey!</p>");
-        html.append("<p style='font-size: 12px; color: #7f8c8d;'>Generated by Fitness AI | Powered by Spring AI + Ollama</p>");
-        html.append("</div>");
+        } catch (MailException e) {
+            chunk.forEach(message -> failed.add(requestByMessage.get(message)));
+            logger.error("Email chunk of {} messages failed", chunk.size(), e);
+        }
+        return failed;
+    }
 
-        html.append("</div>");
-        html.append("</body>");
-        html.append("</html>");
+    /**
+     * Send fitness plan email with PDF
+     */
+    public void sendFitnessPlanEmail(String toEmail, String planContent, String pdfFilePath) {
+        logger.info("Sending fitness plan email to: {}", toEmail);
 
-        return html.toString();
+        String subject = "Your Personalized Fitness Plan";
+        boolean hasAttachment = pdfFilePath != null && !pdfFilePath.isEmpty();
+        String body = emailTemplateService.renderFitnessPlanEmail(hasAttachment);
+
+        deliveryObservation("fitness_plan").observe(() -> {
+            if (hasAttachment) {
+                sendEmailWithAttachment(toEmail, subject, body, pdfFilePath);
+            } else {
+                sendSimpleEmail(toEmail, subject, body);
+            }
+        });
     }
 
     /**
@@ -164,46 +243,102 @@ public class EmailService {
         logger.info("Sending scheduled report notification to: {}", toEmail);
 
         String subject = "Scheduled Fitness Report: " + reportName;
-        String body = buildScheduledReportEmailBody(reportName);
+        String body = emailTemplateService.renderScheduledReportEmail(reportName);
+
+        deliveryObservation("scheduled_report").observe(() -> sendEmailWithAttachment(toEmail, subject, body, pdfPath));
+    }
+
+    /**
+     * Queue a scheduled report email for the next batch flush. Schedules that fire together
+     * (e.g. every daily report at 08:00) then share SMTP connections instead of opening one each.
+     * The current observation is kept as the parent of the delivery span, so delivery stays in
+     * the schedule run's trace. The returned future completes with false if the email failed.
+     */
+    public CompletableFuture<Boolean> queueScheduledReportNotification(String scheduleId, String toEmail,
+                                                                       String reportName, String pdfPath) {
+        String subject = "Scheduled Fitness Report: " + reportName;
+        String body = emailTemplateService.renderScheduledReportEmail(reportName);
+
+        EmailMessageRequest email = new EmailMessageRequest(toEmail, subject, body, pdfPath);
+        email.setScheduleId(scheduleId);
+        email.setParentObservation(observationRegistry.getCurrentObservation());
+
+        PendingEmail pending = new PendingEmail(email, new CompletableFuture<>());
+        if (shuttingDown) {
+            deliverQueued(List.of(pending)); // nothing will flush after shutdown - send now
+        } else {
+            pendingReportEmails.add(pending);
+            logger.debug("Queued scheduled report email for schedule {} ({} pending)",
+                    scheduleId, pendingReportEmails.size());
+        }
+        return pending.delivered();
+    }
+
+    /**
+     * Send every queued scheduled report email through the batch path
+     */
+    @Scheduled(fixedDelayString = "${mail.batch.flush-ms:5000}")
+    public void flushScheduledReportEmails() {
+        List<PendingEmail> pending = new ArrayList<>();
+        PendingEmail next;
+        while ((next = pendingReportEmails.poll()) != null) {
+            pending.add(next);
+        }
+        if (!pending.isEmpty()) {
+            deliverQueued(pending);
+        }
+    }
 
-        sendEmailWithAttachment(toEmail, subject, body, pdfPath);
+    /**
+     * Runs before the mail executor is shut down: send whatever is still queued rather than drop it
+     */
+    @PreDestroy
+    public void drainScheduledReportEmails() {
+        shuttingDown = true;
+        if (!pendingReportEmails.isEmpty()) {
+            logger.info("Sending {} queued scheduled report emails before shutdown", pendingReportEmails.size());
+        }
+        flushScheduledReportEmails();
     }
 
     /**
-     * Build HTML email body for scheduled report
+     * One delivery span per email, parented to the schedule run that queued it, around the shared batch send
      */
-    private String buildScheduledReportEmailBody(String reportName) {
-        StringBuilder html = new StringBuilder();
-
-        html.append("<!DOCTYPE html>");
-        html.append("<html>");
-        html.append("<head>");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }");
-        html.append(".container { max-width: 600px; margin: 0 auto; padding: 20px; }");
-        html.append(".header { background-color: #27ae60; color: white; padding: 20px; text-align: center; }");
-        html.append(".content { background-color: #f9f9f9; padding: 20px; margin-top: 20px; }");
-        html.append("</style>");
-        html.append("</head>");
-        html.append("<body>");
-        html.append("<div class='container'>");
-
-        html.append("<div class='header'>");
-        html.append("<h1>📊 Scheduled Fitness Report</h1>");
-        html.append("</div>");
-
-        html.append("<div class='content'>");
-        html.append("<h2>Your Report is Ready!</h2>");
-        html.append("<p>Report Name: <strong>").append(reportName).append("</strong></p>");
-        html.append("<p>This is your automated fitness report as per your schedule.</p>");
-        html.append("<p>The detailed report is attached as a PDF.</p>");
-        html.append("<p style='margin-top: 20px;'><em>Stay consistent and keep tracking your progress!</em></p>");
-        html.append("</div>");
-
-        html.append("</div>");
-        html.append("</body>");
-        html.append("</html>");
-
-        return html.toString();
+    private void deliverQueued(List<PendingEmail> pending) {
+        List<Observation> observations = new ArrayList<>();
+        List<EmailMessageRequest> emails = new ArrayList<>();
+        for (PendingEmail email : pending) {
+            emails.add(email.request());
+            observations.add(deliveryObservation("scheduled_report")
+                    .parentObservation(email.request().getParentObservation())
+                    .highCardinalityKeyValue("schedule.id", String.valueOf(email.request().getScheduleId()))
+                    .start());
+        }
+
+        Set<EmailMessageRequest> failed;
+        try {
+            failed = sendBatch(emails);
+        } catch (RuntimeException e) {
+            logger.error("Scheduled report email batch failed", e);
+            failed = Collections.newSetFromMap(new IdentityHashMap<>());
+            failed.addAll(emails);
+        }
+
+        for (int i = 0; i < pending.size(); i++) {
+            boolean sent = !failed.contains(emails.get(i));
+            if (!sent) {
+                observations.get(i).error(new MailSendException("Scheduled report email was not delivered"));
+            }
+            observations.get(i).stop();
+            pending.get(i).delivered().complete(sent);
+        }
+    }
+
+    private record PendingEmail(EmailMessageRequest request, CompletableFuture<Boolean> delivered) {}
+
+    private Observation deliveryObservation(String kind) {
+        return Observation.createNotStarted("fitness.delivery", observationRegistry)
+                .lowCardinalityKeyValue("channel", "email")
+                .lowCardinalityKeyValue("kind", kind);
     }
-}
\ No newline at end of file
+}
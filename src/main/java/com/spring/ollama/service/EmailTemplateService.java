@@ -0,0 +1,68 @@
+package com.spring.ollama.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders the HTML email bodies from templates/email/*.html.
+ * Templates are parsed once at startup (Thymeleaf keeps the parsed form cached);
+ * bodies that have no per-recipient data are rendered once and reused.
+ */
+@Service
+public class EmailTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateService.class);
+
+    static final String FITNESS_PLAN_TEMPLATE = "email/fitness-plan";
+    static final String SCHEDULED_REPORT_TEMPLATE = "email/scheduled-report";
+
+    private final ITemplateEngine templateEngine;
+
+    // Fully static bodies, keyed by template + variant
+    private final Map<String, String> staticRenderCache = new ConcurrentHashMap<>();
+
+    public EmailTemplateService(ITemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    /**
+     * Compile the templates at startup so the first email does not pay the parse cost
+     * and a broken template fails the boot instead of a scheduled send
+     */
+    @PostConstruct
+    public void precompileTemplates() {
+        long startTime = System.currentTimeMillis();
+        renderFitnessPlanEmail(true);
+        renderFitnessPlanEmail(false);
+        renderScheduledReportEmail("warm-up");
+        logger.info("Email templates compiled in {} ms", System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Fitness plan email body - static apart from the attachment note
+     */
+    public String renderFitnessPlanEmail(boolean hasAttachment) {
+        return staticRenderCache.computeIfAbsent(FITNESS_PLAN_TEMPLATE + ":" + hasAttachment,
+                key -> render(FITNESS_PLAN_TEMPLATE, Map.of("hasAttachment", hasAttachment)));
+    }
+
+    /**
+     * Scheduled report email body (report name is HTML-escaped by the template)
+     */
+    public String renderScheduledReportEmail(String reportName) {
+        return render(SCHEDULED_REPORT_TEMPLATE, Map.of("reportName", reportName != null ? reportName : ""));
+    }
+
+    private String render(String template, Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+        return templateEngine.process(template, context);
+    }
+}
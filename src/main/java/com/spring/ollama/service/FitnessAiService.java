@@ -1,14 +1,17 @@
 package com.spring.ollama.service;
 
+import com.spring.ollama.config.LlmMetricsAdvisor;
+import com.spring.ollama.config.LogPayloads;
 import com.spring.ollama.dto.CompleteFitnessPlanRequest;
 import com.spring.ollama.dto.ScheduledReportRequest;
+import com.spring.ollama.dto.UserContextSnapshot;
+import com.spring.ollama.entity.StructuredJourney;
 import com.spring.ollama.entity.User;
-import com.spring.ollama.repository.UserRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -23,9 +26,6 @@ public class FitnessAiService {
     private static final Logger logger = LoggerFactory.getLogger(FitnessAiService.class);
     private final ChatClient chatClient;
 
-    @Autowired
-    private UserRepository userRepository;
-
     @Autowired
     private PdfGeneratorService pdfGeneratorService;
 
@@ -35,6 +35,18 @@ public class FitnessAiService {
     @Autowired
     private FitnessPlanParser fitnessPlanParser;
 
+    @Autowired
+    private RecentSummaryContextService recentSummaryContextService;
+
+    @Autowired
+    private UserContextSnapshotService userContextSnapshotService;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
     // In-memory conversation history storage
     private final Map<String, List<ConversationMessage>> conversationHistory = new ConcurrentHashMap<>();
     private static final int MAX_HISTORY_SIZE = 10;
@@ -47,6 +59,109 @@ public class FitnessAiService {
             "macros", "vitamins", "recovery", "stretching", "flexibility", "endurance"
     };
 
+    /*
+     * Fixed instruction blocks. Each prompt starts with one of these, byte for byte, so Ollama can
+     * reuse the KV cache for the system prompt plus instructions across users; per-user data is
+     * appended after them by PromptAssembler. Do not interpolate anything into these.
+     */
+    private static final String WORKOUT_PLAN_INSTRUCTIONS = """
+            Create a detailed workout plan for the specifications given at the end of this message.
+
+            Please include:
+            1. Weekly schedule with specific exercises
+            2. Sets and reps for each exercise
+            3. Rest periods
+            4. Progression tips
+            """;
+
+    private static final String MEAL_PLAN_INSTRUCTIONS = """
+            Create a daily meal plan for the requirements given at the end of this message.
+
+            Please provide:
+            1. Breakfast, lunch, dinner, and 2 snacks
+            2. Macronutrient breakdown for each meal
+            3. Portion sizes
+            4. Meal prep tips
+            """;
+
+    private static final String COMPLETE_PLAN_INSTRUCTIONS = """
+            Create a COMPLETE and COMPREHENSIVE fitness plan for me. My details are in the
+            PERSONAL INFORMATION and REQUIREMENTS sections at the end of this message.
+
+            Please provide a DETAILED plan with the following THREE sections:
+
+            1. WORKOUT PLAN:
+               - Complete weekly schedule (Day 1, Day 2, etc.)
+               - Specific exercises for each day
+               - Sets, reps, and rest periods
+               - Warm-up and cool-down routines
+               - Progression strategy
+
+            2. MEAL PLAN:
+               - Daily meal breakdown (Breakfast, Lunch, Dinner, Snacks)
+               - Specific food items and portion sizes
+               - Macronutrient breakdown (Protein, Carbs, Fats)
+               - Meal timing recommendations
+               - Meal prep tips
+
+            3. SUPPLEMENT RECOMMENDATIONS:
+               - Essential supplements for my goal
+               - Dosage recommendations
+               - Timing (when to take each supplement)
+               - Why each supplement is recommended
+
+            Make the plan practical, sustainable, and aligned with my goal.
+            """;
+
+    private static final String DAILY_PLAN_INSTRUCTIONS = """
+            Create a COMPLETE and DETAILED fitness plan for TODAY ONLY. The day number and my
+            details are in the sections at the end of this message.
+
+            Provide ONLY the following sections for TODAY:
+
+            1. TODAY'S WORKOUT PLAN
+            2. TODAY'S MEAL PLAN
+            3. TODAY'S SUPPLEMENT RECOMMENDATIONS
+
+            IMPORTANT:
+            - Focus ONLY on today's plan
+            - Prioritize muscle retention while supporting fat loss if applicable
+            - Do NOT include other days or weekly schedules
+            - If a PREVIOUS PLAN section is present, vary today's plan and progress sensibly from it
+            - If a RECENT PROGRESS section is present, adapt today's plan to it
+
+            Make the plan realistic, safe, and aligned with the stated goal.
+            """;
+
+    private static final String STRUCTURED_PLAN_INSTRUCTIONS = """
+            Create a COMPLETE fitness plan with CLEAR SECTION MARKERS for the user described in the
+            USER DETAILS section at the end of this message.
+
+            Provide a comprehensive plan with these THREE SECTIONS clearly marked:
+
+            === SECTION 1: WORKOUT PLAN ===
+            Provide:
+            - Weekly training schedule for the user's number of training days
+            - Specific exercises with sets, reps, and rest periods
+            - Warm-up and cool-down routines
+            - Progression strategy
+
+            === SECTION 2: MEAL PLAN ===
+            Provide:
+            - Daily meals (Breakfast, Lunch, Dinner, Snacks) totaling the user's target calories
+            - Specific foods and portion sizes
+            - Macronutrient breakdown for each meal
+            - Meal timing and prep tips
+
+            === SECTION 3: SUPPLEMENT RECOMMENDATIONS ===
+            Provide:
+            - Essential supplements for the user's goal
+            - Dosage and timing for each
+            - Explanation of benefits
+
+            IMPORTANT: Start each section with the exact markers shown above (=== SECTION X: NAME ===)
+            """;
+
     public FitnessAiService(ChatClient chatClient) {
         this.chatClient = chatClient;
         logger.info("FitnessAiService initialized with domain-restricted ChatClient");
@@ -63,13 +178,20 @@ public class FitnessAiService {
      * Ask fitness question with optional conversation ID for memory
      */
     public String askFitnessQuestion(String question, String conversationId) {
-        logger.info("Received fitness question: {}", question);
+        return askFitnessQuestion(question, conversationId, "ask");
+    }
+
+    /**
+     * Ask with the prompt type recorded on the LLM metrics
+     */
+    private String askFitnessQuestion(String question, String conversationId, String promptType) {
+        logger.info("Received fitness question: {}", LogPayloads.preview(question));
         long startTime = System.currentTimeMillis();
 
         try {
             // Pre-validation (optional - the system prompt will handle this too)
             if (!isLikelyFitnessRelated(question)) {
-                logger.warn("Question may not be fitness-related: {}", question);
+                logger.warn("Question may not be fitness-related: {}", LogPayloads.preview(question));
             }
 
             // Add conversation context if conversationId is provided
@@ -85,6 +207,7 @@ public class FitnessAiService {
             logger.debug("Sending prompt to Fitness ChatClient");
             String response = chatClient
                     .prompt(enhancedQuestion)
+                    .advisors(a -> a.param(LlmMetricsAdvisor.PROMPT_TYPE, promptType))
                     .call()
                     .content();
 
@@ -98,14 +221,17 @@ public class FitnessAiService {
             long endTime = System.currentTimeMillis();
             logger.info("Successfully processed fitness question in {} ms. Response length: {} characters",
                     (endTime - startTime), response.length());
-            logger.debug("Response: {}", response);
+            logger.debug("Response: {}", LogPayloads.preview(response));
+            if (logger.isTraceEnabled() && LogPayloads.sampled()) {
+                logger.trace("Full response: {}", response);
+            }
 
             return response;
 
         } catch (Exception e) {
             long endTime = System.currentTimeMillis();
             logger.error("Error processing fitness question after {} ms: {}",
-                    (endTime - startTime), question, e);
+                    (endTime - startTime), LogPayloads.preview(question), e);
             throw new RuntimeException("Failed to get AI response for fitness query", e);
         }
     }
@@ -117,27 +243,16 @@ public class FitnessAiService {
         logger.info("Generating workout plan - Goal: {}, Experience: {}, Days/Week: {}",
                 goal, experience, daysPerWeek);
 
-        String promptText = """
-                Create a detailed workout plan with the following specifications:
-                - Goal: {goal}
-                - Experience Level: {experience}
-                - Days per week: {daysPerWeek}
-                
-                Please include:
-                1. Weekly schedule with specific exercises
-                2. Sets and reps for each exercise
-                3. Rest periods
-                4. Progression tips
-                """;
-
-        PromptTemplate promptTemplate = new PromptTemplate(promptText);
-        Prompt prompt = promptTemplate.create(Map.of(
-                "goal", goal,
-                "experience", experience,
-                "daysPerWeek", daysPerWeek
-        ));
-
-        return chatClient.prompt(prompt).call().content();
+        String prompt = PromptAssembler.withInstructions(WORKOUT_PLAN_INSTRUCTIONS)
+                .section("SPECIFICATIONS")
+                .field("Goal", goal)
+                .field("Experience Level", experience)
+                .field("Days per week", daysPerWeek)
+                .build();
+
+        return chatClient.prompt(prompt)
+                .advisors(a -> a.param(LlmMetricsAdvisor.PROMPT_TYPE, "workout_plan"))
+                .call().content();
     }
 
     /**
@@ -147,27 +262,16 @@ public class FitnessAiService {
         logger.info("Generating meal plan - Goal: {}, Calories: {}, Diet: {}",
                 goal, calories, dietaryPreference);
 
-        String promptText = """
-                Create a daily meal plan with these requirements:
-                - Goal: {goal}
-                - Target Calories: {calories}
-                - Dietary Preference: {dietaryPreference}
-                
-                Please provide:
-                1. Breakfast, lunch, dinner, and 2 snacks
-                2. Macronutrient breakdown for each meal
-                3. Portion sizes
-                4. Meal prep tips
-                """;
-
-        PromptTemplate promptTemplate = new PromptTemplate(promptText);
-        Prompt prompt = promptTemplate.create(Map.of(
-                "goal", goal,
-                "calories", calories,
-                "dietaryPreference", dietaryPreference
-        ));
-
-        return chatClient.prompt(prompt).call().content();
+        String prompt = PromptAssembler.withInstructions(MEAL_PLAN_INSTRUCTIONS)
+                .section("REQUIREMENTS")
+                .field("Goal", goal)
+                .field("Target Calories", calories)
+                .field("Dietary Preference", dietaryPreference)
+                .build();
+
+        return chatClient.prompt(prompt)
+                .advisors(a -> a.param(LlmMetricsAdvisor.PROMPT_TYPE, "meal_plan"))
+                .call().content();
     }
 
     /**
@@ -182,7 +286,7 @@ public class FitnessAiService {
                 exerciseName
         );
 
-        return askFitnessQuestion(question);
+        return askFitnessQuestion(question, null, "exercise_form");
     }
 
     /**
@@ -197,7 +301,7 @@ public class FitnessAiService {
                 goal, dietType
         );
 
-        return askFitnessQuestion(question);
+        return askFitnessQuestion(question, null, "supplements");
     }
 
     /**
@@ -211,131 +315,101 @@ public class FitnessAiService {
         logger.info("Generating COMPLETE fitness plan - Goal: {}, Experience: {}, Days/Week: {}",
                 goal, experience, daysPerWeek);
 
-        // Build a comprehensive prompt that requests all three components
-        StringBuilder promptBuilder = new StringBuilder();
-        promptBuilder.append("Create a COMPLETE and COMPREHENSIVE fitness plan for me with the following details:\n\n");
-
-        // Personal Information
-        promptBuilder.append("=== PERSONAL INFORMATION ===\n");
-        promptBuilder.append("Goal: ").append(goal).append("\n");
-        promptBuilder.append("Experience Level: ").append(experience).append("\n");
-        if (age != null) promptBuilder.append("Age: ").append(age).append("\n");
-        if (gender != null) promptBuilder.append("Gender: ").append(gender).append("\n");
-        if (currentWeight != null) promptBuilder.append("Current Weight: ").append(currentWeight).append("\n");
-        if (targetWeight != null) promptBuilder.append("Target Weight: ").append(targetWeight).append("\n");
-        if (height != null) promptBuilder.append("Height: ").append(height).append("\n");
-        if(aditionalInfo!=null)promptBuilder.append("Note: ").append(aditionalInfo).append("\n");
-
-        promptBuilder.append("\n=== REQUIREMENTS ===\n");
-        promptBuilder.append("Training Days per Week: ").append(daysPerWeek).append("\n");
-        promptBuilder.append("Target Daily Calories: ").append(targetCalories).append("\n");
-        promptBuilder.append("Dietary Preference: ").append(dietaryPreference).append("\n");
-
-        promptBuilder.append("\n\nPlease provide a DETAILED plan with the following THREE sections:\n\n");
-
-        promptBuilder.append("1. WORKOUT PLAN:\n");
-        promptBuilder.append("   - Complete weekly schedule (Day 1, Day 2, etc.)\n");
-        promptBuilder.append("   - Specific exercises for each day\n");
-        promptBuilder.append("   - Sets, reps, and rest periods\n");
-        promptBuilder.append("   - Warm-up and cool-down routines\n");
-        promptBuilder.append("   - Progression strategy\n\n");
-
-        promptBuilder.append("2. MEAL PLAN:\n");
-        promptBuilder.append("   - Daily meal breakdown (Breakfast, Lunch, Dinner, Snacks)\n");
-        promptBuilder.append("   - Specific food items and portion sizes\n");
-        promptBuilder.append("   - Macronutrient breakdown (Protein, Carbs, Fats)\n");
-        promptBuilder.append("   - Meal timing recommendations\n");
-        promptBuilder.append("   - Meal prep tips\n\n");
-
-        promptBuilder.append("3. SUPPLEMENT RECOMMENDATIONS:\n");
-        promptBuilder.append("   - Essential supplements for my goal\n");
-        promptBuilder.append("   - Dosage recommendations\n");
-        promptBuilder.append("   - Timing (when to take each supplement)\n");
-        promptBuilder.append("   - Why each supplement is recommended\n\n");
-
-        promptBuilder.append("Make the plan practical, sustainable, and aligned with my goal of ").append(goal).append(".");
-
-        String prompt = promptBuilder.toString();
-        logger.debug("Complete plan prompt length: {} characters", prompt.length());
-
-        return askFitnessQuestion(prompt);
+        // Shared instructions first, this user's details last (see PromptAssembler)
+        PromptAssembler assembler = PromptAssembler.withInstructions(COMPLETE_PLAN_INSTRUCTIONS)
+                .section("PERSONAL INFORMATION")
+                .field("Goal", goal)
+                .field("Experience Level", experience)
+                .field("Age", age)
+                .field("Gender", gender)
+                .field("Current Weight", currentWeight)
+                .field("Target Weight", targetWeight)
+                .field("Height", height)
+                .field("Note", aditionalInfo)
+                .section("REQUIREMENTS")
+                .field("Training Days per Week", daysPerWeek)
+                .field("Target Daily Calories", targetCalories)
+                .field("Dietary Preference", dietaryPreference);
+
+        String prompt = assembler.build();
+        logger.debug("Complete plan prompt length: {} characters ({} shared prefix)",
+                prompt.length(), assembler.getPrefixLength());
+
+        return generationObservation("complete_plan")
+                .observe(() -> askFitnessQuestion(prompt, null, "complete_plan"));
     }
 
 
     public String getCompleteFitnessPlan(String userId) {
+        UserContextSnapshot context = userContextSnapshotService.getSnapshot(userId);
+        return getCompleteFitnessPlan(context, context.getNextDayNumber());
+    }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        int currentDay = 1;
-
-        String resolvedGoal = user.getFitnessGoal();
-        if ("Muscle Gain".equalsIgnoreCase(resolvedGoal)
-                && user.getTargetWeight() != null
-                && user.getCurrentWeight() != null) {
-
-            // Convert String to Integer (or Double if decimals are possible)
-            int targetWeight = Integer.parseInt(user.getTargetWeight());
-            int currentWeight = Integer.parseInt(user.getCurrentWeight());
-
-            if (targetWeight < currentWeight) {
-                resolvedGoal = "Body Recomposition (Fat Loss with Muscle Retention)";
-            }
-        }
+    /**
+     * Generate the plan for the given day from the cached user context snapshot (profile,
+     * last plan digest) plus the cached recent-progress block - no Mongo reads when warm
+     */
+    private String getCompleteFitnessPlan(UserContextSnapshot context, int currentDay) {
+        return generationObservation("daily_plan").observe(() -> generateDailyPlan(context, currentDay));
+    }
 
+    private String generateDailyPlan(UserContextSnapshot context, int currentDay) {
 
-        String dietaryPreference =
-                user.getDietaryPreference() != null
-                        ? user.getDietaryPreference()
-                        : "No specific dietary restrictions";
+        String resolvedGoal = context.getResolvedGoal();
+        String dietaryPreference = context.getDietaryPreference();
 
         logger.info(
                 "Generating DAILY fitness plan for user - name: {}, day: {}, goal: {}",
-                user.getFirstName(), currentDay, resolvedGoal
+                context.getFirstName(), currentDay, resolvedGoal
         );
 
-        StringBuilder prompt = new StringBuilder();
-
-        prompt.append("Create a COMPLETE and DETAILED fitness plan for TODAY ONLY.\n");
-        prompt.append("This is Day ").append(currentDay).append(" of my fitness journey.\n\n");
-
-        prompt.append("=== PERSONAL INFORMATION ===\n");
-        prompt.append("Primary Goal: ").append(resolvedGoal).append("\n");
-        prompt.append("Experience Level: ").append(user.getExperienceLevel()).append("\n");
-        prompt.append("Age: ").append(user.getAge()).append("\n");
-        prompt.append("Gender: ").append(user.getGender()).append("\n");
-        prompt.append("Current Weight: ").append(user.getCurrentWeight()).append(" kg\n");
-        prompt.append("Target Weight: ").append(user.getTargetWeight()).append(" kg\n");
-        prompt.append("Height: ").append(user.getHeight()).append(" cm\n");
-
-        prompt.append("\n=== REQUIREMENTS ===\n");
-        prompt.append("Focus ONLY on today's plan.\n");
-        prompt.append("Dietary Preference: ").append(dietaryPreference).append("\n");
-
-        prompt.append("\nProvide ONLY the following sections for TODAY:\n\n");
-
-        prompt.append("1. TODAY'S WORKOUT PLAN\n");
-        prompt.append("2. TODAY'S MEAL PLAN\n");
-        prompt.append("3. TODAY'S SUPPLEMENT RECOMMENDATIONS\n\n");
+        // Shared instructions first; the day number and everything about this user come after
+        PromptAssembler assembler = PromptAssembler.withInstructions(DAILY_PLAN_INSTRUCTIONS)
+                .section("TODAY")
+                .line("This is Day " + currentDay + " of my fitness journey.")
+                .section("PERSONAL INFORMATION")
+                .field("Primary Goal", resolvedGoal)
+                .field("Experience Level", context.getExperienceLevel())
+                .field("Age", context.getAge())
+                .field("Gender", context.getGender())
+                .field("Current Weight", context.getCurrentWeight(), " kg")
+                .field("Target Weight", context.getTargetWeight(), " kg")
+                .field("Height", context.getHeight(), " cm");
+
+        if (context.getLastPlanDigest() != null) {
+            assembler.section("PREVIOUS PLAN")
+                    .line(context.getLastPlanDigest());
+        }
 
-        prompt.append("IMPORTANT:\n");
-        prompt.append("- Prioritize muscle retention while supporting fat loss if applicable\n");
-        prompt.append("- Do NOT include other days or weekly schedules\n\n");
+        String recentProgress = recentSummaryContextService.getRecentSummaryContext(context.getUserId());
+        if (!recentProgress.isEmpty()) {
+            assembler.section("RECENT PROGRESS (most recent first)")
+                    .line(recentProgress);
+        }
 
-        prompt.append("Make the plan realistic, safe, and aligned with the stated goal.");
+        assembler.section("REQUIREMENTS")
+                .field("Dietary Preference", dietaryPreference);
 
-        return askFitnessQuestion(prompt.toString());
+        return askFitnessQuestion(assembler.build(), null, "daily_plan");
     }
 
 
-    // Updated method to return structured JSON
-    public String generateStructuredFitnessPlan(String userId) {
+    /**
+     * Generate and parse the plan for the user's next day as the snapshot sees it. The journey's
+     * currentDay is that day; DailyRoutineService.saveDailyRoutine claims it (or renumbers the
+     * plan if it was taken meanwhile) once the plan is saved.
+     */
+    public StructuredJourney generateStructuredFitnessPlan(String userId) {
+
+        UserContextSnapshot context = userContextSnapshotService.getSnapshot(userId);
+        int currentDay = context.getNextDayNumber();
 
-        // Get the LLM response (your existing method)
-        String llmResponse = getCompleteFitnessPlan(userId);
+        // Get the LLM response for that day
+        String llmResponse = getCompleteFitnessPlan(context, currentDay);
 
         // Parse into structured format
-        String structuredJourney = fitnessPlanParser.parseToStructuredJourney(llmResponse, 1);
+        StructuredJourney structuredJourney =
+                fitnessPlanParser.parseToStructuredJourney(llmResponse, currentDay);
 
         logger.info("Generated structured fitness plan for user: {}", userId);
 
@@ -343,8 +417,15 @@ public class FitnessAiService {
     }
 
     public String executeReportGeneration(String userId) {
+        return Observation.createNotStarted("fitness.report", observationRegistry)
+                .lowCardinalityKeyValue("trigger", "user")
+                .highCardinalityKeyValue("user.id", userId)
+                .observe(() -> runReportGeneration(userId));
+    }
+
+    private String runReportGeneration(String userId) {
         logger.info("Executing scheduled report generation: for userId {}", userId);
-        Optional<User> optionalUser = userRepository.findById(userId);
+        Optional<User> optionalUser = userCacheService.findById(userId);
         User loggedInuser = null;
         if (optionalUser.isPresent()) {
             loggedInuser = optionalUser.get();
@@ -353,10 +434,14 @@ public class FitnessAiService {
         try {
             // Generate fitness plan
             logger.debug("Generating fitness plan for userId : {}", userId);
-            String fitnessPlan = getCompleteFitnessPlan(userId);
+            // Reports are not saved as routines; the day is only a label
+            UserContextSnapshot context = userContextSnapshotService.getSnapshot(userId);
+            int currentDay = context.getNextDayNumber();
+            String fitnessPlan = getCompleteFitnessPlan(context, currentDay);
 
             // Parse into structured format
-            String structuredJourney = fitnessPlanParser.parseToStructuredJourney(fitnessPlan, 1);
+            StructuredJourney structuredJourney =
+                    fitnessPlanParser.parseToStructuredJourney(fitnessPlan, currentDay);
             String pdfPath = null;
 
             String fileName = generateFileName(loggedInuser.getFirstName());
@@ -371,7 +456,7 @@ public class FitnessAiService {
             );
             logger.info("Email sent to: {}", loggedInuser.getEmail());
 
-            return structuredJourney;
+            return fitnessPlanParser.toJson(structuredJourney);
         } catch (Exception e) {
             logger.error("Error executing scheduled report: {} ",e);
             // Optionally send error notification email
@@ -392,6 +477,11 @@ public class FitnessAiService {
         }
     }
 
+    private Observation generationObservation(String type) {
+        return Observation.createNotStarted("fitness.plan.generate", observationRegistry)
+                .lowCardinalityKeyValue("type", type);
+    }
+
     private String generateFileName(String reportName) {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
 
@@ -458,51 +548,25 @@ public class FitnessAiService {
         logger.info("Generating STRUCTURED fitness plan - Goal: {}, Experience: {}, Days/Week: {}",
                 goal, experience, daysPerWeek);
 
-        // Build a prompt that explicitly requests clear sections with markers
-        StringBuilder promptBuilder = new StringBuilder();
-        promptBuilder.append("Create a COMPLETE fitness plan with CLEAR SECTION MARKERS.\n\n");
-
-        // Personal Information
-        promptBuilder.append("=== USER DETAILS ===\n");
-        promptBuilder.append("Goal: ").append(goal).append("\n");
-        promptBuilder.append("Experience: ").append(experience).append("\n");
-        promptBuilder.append("Training Days: ").append(daysPerWeek).append(" per week\n");
-        promptBuilder.append("Target Calories: ").append(targetCalories).append("\n");
-        promptBuilder.append("Diet: ").append(dietaryPreference).append("\n");
-        if (age != null) promptBuilder.append("Age: ").append(age).append("\n");
-        if (gender != null) promptBuilder.append("Gender: ").append(gender).append("\n");
-        if (currentWeight != null) promptBuilder.append("Current Weight: ").append(currentWeight).append("\n");
-        if (targetWeight != null) promptBuilder.append("Target Weight: ").append(targetWeight).append("\n");
-        if (height != null) promptBuilder.append("Height: ").append(height).append("\n");
-
-        promptBuilder.append("\n\nProvide a comprehensive plan with these THREE SECTIONS clearly marked:\n\n");
-
-        promptBuilder.append("=== SECTION 1: WORKOUT PLAN ===\n");
-        promptBuilder.append("Provide:\n");
-        promptBuilder.append("- Weekly training schedule for ").append(daysPerWeek).append(" days\n");
-        promptBuilder.append("- Specific exercises with sets, reps, and rest periods\n");
-        promptBuilder.append("- Warm-up and cool-down routines\n");
-        promptBuilder.append("- Progression strategy\n\n");
-
-        promptBuilder.append("=== SECTION 2: MEAL PLAN ===\n");
-        promptBuilder.append("Provide:\n");
-        promptBuilder.append("- Daily meals (Breakfast, Lunch, Dinner, Snacks) totaling ").append(targetCalories).append(" calories\n");
-        promptBuilder.append("- Specific foods and portion sizes\n");
-        promptBuilder.append("- Macronutrient breakdown for each meal\n");
-        promptBuilder.append("- Meal timing and prep tips\n\n");
-
-        promptBuilder.append("=== SECTION 3: SUPPLEMENT RECOMMENDATIONS ===\n");
-        promptBuilder.append("Provide:\n");
-        promptBuilder.append("- Essential supplements for ").append(goal).append("\n");
-        promptBuilder.append("- Dosage and timing for each\n");
-        promptBuilder.append("- Explanation of benefits\n\n");
-
-        promptBuilder.append("IMPORTANT: Start each section with the exact markers shown above (=== SECTION X: NAME ===)");
-
-        String prompt = promptBuilder.toString();
-        logger.debug("Structured plan prompt length: {} characters", prompt.length());
-
-        return askFitnessQuestion(prompt);
+        // Section markers and instructions are shared; the user details follow them
+        PromptAssembler assembler = PromptAssembler.withInstructions(STRUCTURED_PLAN_INSTRUCTIONS)
+                .section("USER DETAILS")
+                .field("Goal", goal)
+                .field("Experience", experience)
+                .field("Training Days", daysPerWeek, " per week")
+                .field("Target Calories", targetCalories)
+                .field("Diet", dietaryPreference)
+                .field("Age", age)
+                .field("Gender", gender)
+                .field("Current Weight", currentWeight)
+                .field("Target Weight", targetWeight)
+                .field("Height", height);
+
+        String prompt = assembler.build();
+        logger.debug("Structured plan prompt length: {} characters ({} shared prefix)",
+                prompt.length(), assembler.getPrefixLength());
+
+        return askFitnessQuestion(prompt, null, "structured_plan");
     }
 
     /**
@@ -1,11 +1,14 @@
 package com.spring.ollama.service;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.spring.ollama.entity.StructuredJourney;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -19,31 +22,29 @@ public class FitnessPlanParser {
     private static final Logger logger = LoggerFactory.getLogger(FitnessPlanParser.class);
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
     /**
-     * Parse LLM fitness plan response into structured JSON format
+     * Parse LLM fitness plan response into a structured journey
      */
-    public String parseToStructuredJourney(String llmResponse, int currentDay) {
+    public StructuredJourney parseToStructuredJourney(String llmResponse, int currentDay) {
+        return Observation.createNotStarted("fitness.plan.parse", observationRegistry)
+                .observe(() -> parse(llmResponse, currentDay));
+    }
+
+    private StructuredJourney parse(String llmResponse, int currentDay) {
         try {
             // Create the root journey object
-            ObjectNode journey = objectMapper.createObjectNode();
-            journey.put("currentDay", currentDay);
-            journey.put("totalDays", 7);
-
-            // Add overview
-            ObjectNode overview = objectMapper.createObjectNode();
-            overview.put("weeklyGoal", "Build strength and improve endurance");
-            overview.put("estimatedProgress", "Expected to see initial improvements in energy and strength");
-            journey.set("overview", overview);
+            StructuredJourney journey = newJourney(currentDay);
+            journey.setOverview(new StructuredJourney.Overview(
+                    "Build strength and improve endurance",
+                    "Expected to see initial improvements in energy and strength"));
 
-            // Parse the LLM response for today's plan
-            ObjectNode dayPlan = parseSingleDayPlan(llmResponse, currentDay);
+            // Parse the LLM response for today's plan - days holds just today's plan
+            journey.getDays().add(parseSingleDayPlan(llmResponse, currentDay));
 
-            // Create days array with just today's plan
-            ArrayNode daysArray = objectMapper.createArrayNode();
-            daysArray.add(dayPlan);
-            journey.set("days", daysArray);
-
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(journey);
+            return journey;
 
         } catch (Exception e) {
             logger.error("Error parsing fitness plan", e);
@@ -52,23 +53,37 @@ public class FitnessPlanParser {
     }
 
     /**
-     * Parse a single day's plan from LLM response
+     * Serialize a journey to compact JSON (for callers that still hand the plan around as text)
      */
-    private ObjectNode parseSingleDayPlan(String llmResponse, int day) {
-        ObjectNode dayPlan = objectMapper.createObjectNode();
-        dayPlan.put("day", day);
+    public String toJson(StructuredJourney journey) {
+        try {
+            return objectMapper.writeValueAsString(journey);
+        } catch (JsonProcessingException e) {
+            logger.error("Error serializing structured journey", e);
+            return "{}";
+        }
+    }
 
-        // Parse workout section
-        ObjectNode workout = parseWorkoutSection(llmResponse);
-        dayPlan.set("workout", workout);
+    private StructuredJourney newJourney(int currentDay) {
+        StructuredJourney journey = new StructuredJourney();
+        journey.setCurrentDay(currentDay);
+        journey.setTotalDays(7);
+        return journey;
+    }
+
+    /**
+     * Parse a single day's plan from LLM response
+     */
+    private StructuredJourney.DayPlan parseSingleDayPlan(String llmResponse, int day) {
+        StructuredJourney.DayPlan dayPlan = new StructuredJourney.DayPlan();
+        dayPlan.setDay(day);
 
-        // Parse meal section
-        ObjectNode meal = parseMealSection(llmResponse);
-        dayPlan.set("meal", meal);
+        // Parse workout and meal sections
+        dayPlan.setWorkout(parseWorkoutSection(llmResponse));
+        dayPlan.setMeal(parseMealSection(llmResponse));
 
         // Extract tips
-        String tips = extractTips(llmResponse);
-        dayPlan.put("tips", tips);
+        dayPlan.setTips(extractTips(llmResponse));
 
         return dayPlan;
     }
@@ -76,28 +91,18 @@ public class FitnessPlanParser {
     /**
      * Parse workout section from LLM response
      */
-    private ObjectNode parseWorkoutSection(String response) {
-        ObjectNode workout = objectMapper.createObjectNode();
+    private StructuredJourney.Workout parseWorkoutSection(String response) {
+        StructuredJourney.Workout workout = new StructuredJourney.Workout();
 
         try {
             // Extract workout title
             String title = extractSection(response,
                     "(?i)(workout plan|today'?s workout|exercise plan)[:\\s]*([^\n]+)", 2);
-            workout.put("title", title != null ? title.trim() : "Full Body Workout");
-
-            // Extract duration
-            String duration = extractDuration(response);
-            workout.put("duration", duration);
+            workout.setTitle(title != null ? title.trim() : "Full Body Workout");
 
-            // Extract exercises
-            List<String> exercises = extractExercises(response);
-            ArrayNode exercisesArray = objectMapper.createArrayNode();
-            exercises.forEach(exercisesArray::add);
-            workout.set("exercises", exercisesArray);
-
-            // Extract notes
-            String notes = extractWorkoutNotes(response);
-            workout.put("notes", notes);
+            workout.setDuration(extractDuration(response));
+            workout.setExercises(extractExercises(response));
+            workout.setNotes(extractWorkoutNotes(response));
 
         } catch (Exception e) {
             logger.error("Error parsing workout section", e);
@@ -110,22 +115,19 @@ public class FitnessPlanParser {
     /**
      * Parse meal section from LLM response
      */
-    private ObjectNode parseMealSection(String response) {
-        ObjectNode meal = objectMapper.createObjectNode();
+    private StructuredJourney.Meal parseMealSection(String response) {
+        StructuredJourney.Meal meal = new StructuredJourney.Meal();
 
         try {
             // Extract meals
-            meal.put("breakfast", extractMeal(response, "breakfast"));
-            meal.put("lunch", extractMeal(response, "lunch"));
-            meal.put("dinner", extractMeal(response, "dinner"));
-            meal.put("snacks", extractMeal(response, "snack"));
+            meal.setBreakfast(extractMeal(response, "breakfast"));
+            meal.setLunch(extractMeal(response, "lunch"));
+            meal.setDinner(extractMeal(response, "dinner"));
+            meal.setSnacks(extractMeal(response, "snack"));
 
             // Extract calories and macros
-            String totalCalories = extractCalories(response);
-            meal.put("totalCalories", totalCalories);
-
-            String macros = extractMacros(response);
-            meal.put("macros", macros);
+            meal.setTotalCalories(extractCalories(response));
+            meal.setMacros(extractMacros(response));
 
         } catch (Exception e) {
             logger.error("Error parsing meal section", e);
@@ -309,68 +311,55 @@ public class FitnessPlanParser {
     /**
      * Set default workout values
      */
-    private void setDefaultWorkout(ObjectNode workout) {
-        workout.put("title", "Full Body Workout");
-        workout.put("duration", "45 minutes");
+    private void setDefaultWorkout(StructuredJourney.Workout workout) {
+        workout.setTitle("Full Body Workout");
+        workout.setDuration("45 minutes");
 
-        ArrayNode exercises = objectMapper.createArrayNode();
+        List<String> exercises = new ArrayList<>();
         exercises.add("Warm-up: 5 min light cardio");
         exercises.add("Squats: 3 sets x 12 reps");
         exercises.add("Push-ups: 3 sets x 10 reps");
         exercises.add("Plank: 3 sets x 30 seconds");
-        workout.set("exercises", exercises);
+        workout.setExercises(exercises);
 
-        workout.put("notes", "Focus on proper form.");
+        workout.setNotes("Focus on proper form.");
     }
 
     /**
      * Set default meal values
      */
-    private void setDefaultMeals(ObjectNode meal) {
-        meal.put("breakfast", "Oatmeal with berries and almonds (350 cal)");
-        meal.put("lunch", "Grilled chicken salad with quinoa (450 cal)");
-        meal.put("dinner", "Baked salmon with sweet potato and broccoli (500 cal)");
-        meal.put("snacks", "Greek yogurt, apple, protein shake");
-        meal.put("totalCalories", "1800 cal");
-        meal.put("macros", "Protein: 120g | Carbs: 180g | Fats: 60g");
+    private void setDefaultMeals(StructuredJourney.Meal meal) {
+        meal.setBreakfast("Oatmeal with berries and almonds (350 cal)");
+        meal.setLunch("Grilled chicken salad with quinoa (450 cal)");
+        meal.setDinner("Baked salmon with sweet potato and broccoli (500 cal)");
+        meal.setSnacks("Greek yogurt, apple, protein shake");
+        meal.setTotalCalories("1800 cal");
+        meal.setMacros("Protein: 120g | Carbs: 180g | Fats: 60g");
     }
 
     /**
      * Fallback journey if parsing fails
      */
-    private String getFallbackJourney(int currentDay) {
-        try {
-            ObjectNode journey = objectMapper.createObjectNode();
-            journey.put("currentDay", currentDay);
-            journey.put("totalDays", 7);
-
-            ObjectNode overview = objectMapper.createObjectNode();
-            overview.put("weeklyGoal", "Build strength and improve endurance");
-            overview.put("estimatedProgress", "Expected to see initial improvements");
-            journey.set("overview", overview);
+    private StructuredJourney getFallbackJourney(int currentDay) {
+        StructuredJourney journey = newJourney(currentDay);
+        journey.setOverview(new StructuredJourney.Overview(
+                "Build strength and improve endurance",
+                "Expected to see initial improvements"));
 
-            ObjectNode dayPlan = objectMapper.createObjectNode();
-            dayPlan.put("day", currentDay);
+        StructuredJourney.DayPlan dayPlan = new StructuredJourney.DayPlan();
+        dayPlan.setDay(currentDay);
 
-            ObjectNode workout = objectMapper.createObjectNode();
-            setDefaultWorkout(workout);
-            dayPlan.set("workout", workout);
-
-            ObjectNode meal = objectMapper.createObjectNode();
-            setDefaultMeals(meal);
-            dayPlan.set("meal", meal);
-
-            dayPlan.put("tips", "Stay hydrated and maintain consistency!");
+        StructuredJourney.Workout workout = new StructuredJourney.Workout();
+        setDefaultWorkout(workout);
+        dayPlan.setWorkout(workout);
 
-            ArrayNode daysArray = objectMapper.createArrayNode();
-            daysArray.add(dayPlan);
-            journey.set("days", daysArray);
+        StructuredJourney.Meal meal = new StructuredJourney.Meal();
+        setDefaultMeals(meal);
+        dayPlan.setMeal(meal);
 
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(journey);
+        dayPlan.setTips("Stay hydrated and maintain consistency!");
 
-        } catch (Exception e) {
-            logger.error("Error creating fallback journey", e);
-            return "{}";
-        }
+        journey.getDays().add(dayPlan);
+        return journey;
     }
-}
\ No newline at end of file
+}
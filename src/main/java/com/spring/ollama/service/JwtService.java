@@ -1,9 +1,17 @@
 package com.spring.ollama.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,9 +19,15 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
@@ -21,14 +35,59 @@ public class JwtService {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
 
+    // Claim carrying the user's id, checked against {userId} on user-scoped routes
+    public static final String USER_ID_CLAIM = "uid";
+
     // Secret key for JWT signing (should be in application.properties)
     @Value("${jwt.secret:your-256-bit-secret-key-must-be-at-least-32-characters-long-for-hs256}")
     private String secretKey;
 
-    // Token expiration time (default: 24 hours)
-    @Value("${jwt.expiration:86400000}")
+    // Access token expiration time (default: 15 minutes; refresh tokens extend the session)
+    @Value("${jwt.expiration:900000}")
     private Long jwtExpiration;
 
+    // Verified-claims cache: bounded, each entry lives until its token expires
+    @Value("${jwt.claims-cache.max-size:100000}")
+    private long claimsCacheMaxSize;
+
+    private final MeterRegistry meterRegistry;
+
+    // Derived once from the secret - key derivation and parser setup are not per-request work
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, Claims> verifiedClaims;
+
+    public JwtService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        return nanosUntilExpiry(claims);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return nanosUntilExpiry(claims);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "jwt.claims");
+    }
+
     /**
      * Generate JWT token for a user
      */
@@ -54,18 +113,25 @@ public class JwtService {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString()) // jti - the handle used to revoke this token
                 .setIssuedAt(now)
                 .setExpiration(expirationDate)
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Access token lifetime, reported to clients as expiresIn
+     */
+    public long getAccessTokenTtlMs() {
+        return jwtExpiration;
+    }
+
     /**
      * Get signing key from secret
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
 
     /**
@@ -91,21 +157,31 @@ public class JwtService {
     }
 
     /**
-     * Extract all claims from token
+     * Extract all claims from token (signature verified; throws on invalid or expired tokens)
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String key = tokenHash(token);
+        Claims cached = verifiedClaims.getIfPresent(key);
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        verifiedClaims.put(key, claims);
+        return claims;
     }
 
     /**
-     * Check if token is expired
+     * Verify a token once and return its claims, or empty when it is invalid or expired.
+     * Used on the request path by JwtAuthenticationFilter.
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Optional<Claims> parseVerifiedClaims(String token) {
+        try {
+            return Optional.of(extractAllClaims(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected JWT: {}", e.getMessage());
+            return Optional.empty();
+        }
     }
 
     /**
@@ -113,8 +189,8 @@ public class JwtService {
      */
     public Boolean validateToken(String token, String username) {
         try {
-            final String extractedUsername = extractUsername(token);
-            return (extractedUsername.equals(username) && !isTokenExpired(token));
+            Claims claims = extractAllClaims(token);
+            return claims.getSubject().equals(username) && !isExpired(claims);
         } catch (Exception e) {
             logger.error("Token validation failed", e);
             return false;
@@ -126,11 +202,34 @@ public class JwtService {
      */
     public Boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            return !isExpired(extractAllClaims(token));
         } catch (Exception e) {
             logger.error("Token validation failed", e);
             return false;
         }
     }
+
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+    }
+
+    private long nanosUntilExpiry(Claims claims) {
+        if (claims.getExpiration() == null) {
+            return TimeUnit.MILLISECONDS.toNanos(jwtExpiration);
+        }
+        long millis = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+    }
+
+    /**
+     * SHA-256 of a raw token, so tokens themselves are never held as cache keys or stored
+     */
+    static String tokenHash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
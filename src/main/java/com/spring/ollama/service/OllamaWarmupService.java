@@ -0,0 +1,152 @@
+package com.spring.ollama.service;
+
+import com.spring.ollama.config.RoutingChatModel;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the chat model loaded on every Ollama backend behind the RoutingChatModel. An empty
+ * /api/generate request makes Ollama load the model and hold it for keep_alive; repeating it
+ * before keep_alive runs out means no user request pays the model load time. A backend takes
+ * router traffic only once it is warm, and the service reports ready (readiness UP through
+ * OllamaHealthIndicator) while at least one backend is warm.
+ */
+@Service
+public class OllamaWarmupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OllamaWarmupService.class);
+
+    private final RoutingChatModel router;
+    private final Map<RoutingChatModel.Backend, RestClient> warmupClients = new LinkedHashMap<>();
+    private final Set<RoutingChatModel.Backend> warmingUp = ConcurrentHashMap.newKeySet();
+    private final ExecutorService warmupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${spring.ai.ollama.chat.model:llama3.2}")
+    private String model;
+
+    private final boolean enabled;
+
+    // How long Ollama keeps the model loaded after each request
+    @Value("${ollama.warmup.keep-alive:30m}")
+    private String keepAlive;
+
+    // Re-warm interval; keep this well under keep-alive
+    @Value("${ollama.warmup.refresh-ms:600000}")
+    private long refreshMs;
+
+    public OllamaWarmupService(RoutingChatModel router,
+                               RestClient.Builder restClientBuilder,
+                               @Value("${ollama.warmup.enabled:true}") boolean enabled,
+                               @Value("${ollama.warmup.timeout-ms:120000}") long timeoutMs) {
+        this.router = router;
+        this.enabled = enabled;
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(timeoutMs)); // a cold load can take a while
+
+        for (RoutingChatModel.Backend backend : router.getBackends()) {
+            if (!enabled) {
+                backend.markWarm(null); // nothing to wait for - route to every backend straight away
+                continue;
+            }
+            warmupClients.put(backend, restClientBuilder.clone()
+                    .baseUrl(backend.getName())
+                    .requestFactory(requestFactory)
+                    .build());
+        }
+    }
+
+    /**
+     * Checked every few seconds: warms a backend immediately while it is cold (startup, Ollama
+     * restarts), otherwise once per refresh interval. Warm-ups run on their own virtual threads
+     * and are not waited for, so one slow or hung instance neither holds up the others nor this
+     * scheduler thread; a backend whose previous warm-up is still running is skipped.
+     */
+    @Scheduled(fixedDelayString = "${ollama.warmup.check-ms:5000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        for (RoutingChatModel.Backend backend : warmupClients.keySet()) {
+            Instant last = backend.getLastWarmAt();
+            boolean due = !backend.isWarm() || last == null
+                    || Duration.between(last, Instant.now()).toMillis() >= refreshMs;
+            if (due && warmingUp.add(backend)) {
+                warmupExecutor.execute(() -> {
+                    try {
+                        warm(backend);
+                    } finally {
+                        warmingUp.remove(backend);
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        warmupExecutor.shutdownNow();
+    }
+
+    /**
+     * Load the model on one backend (no prompt, nothing generated) and extend its keep-alive
+     */
+    public boolean warm(RoutingChatModel.Backend backend) {
+        try {
+            Map<?, ?> response = warmupClients.get(backend).post()
+                    .uri("/api/generate")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("model", model, "keep_alive", keepAlive))
+                    .retrieve()
+                    .body(Map.class);
+
+            Object loadDuration = response != null ? response.get("load_duration") : null;
+            backend.markWarm(loadDuration instanceof Number nanos ? Duration.ofNanos(nanos.longValue()).toMillis() : null);
+            return true;
+
+        } catch (Exception e) {
+            backend.markCold(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Ready while at least one backend is warm
+     */
+    public boolean isReady() {
+        return !enabled || router.getBackends().stream().anyMatch(RoutingChatModel.Backend::isWarm);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public List<RoutingChatModel.Backend> getBackends() {
+        return router.getBackends();
+    }
+}
@@ -0,0 +1,181 @@
+package com.spring.ollama.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on a dedicated bounded pool and throttles attempts per client IP and per account,
+ * so a login storm degrades into fast 429s instead of starving the request threads.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor hashingExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, TokenBucketRateLimiter> ipBuckets;
+    private final Cache<String, TokenBucketRateLimiter> accountBuckets;
+
+    @Value("${auth.hashing.timeout-ms:5000}")
+    private long hashTimeoutMs;
+
+    @Value("${auth.throttle.ip.burst:20}")
+    private int ipBurst;
+
+    @Value("${auth.throttle.ip.per-minute:60}")
+    private double ipPerMinute;
+
+    @Value("${auth.throttle.account.burst:5}")
+    private int accountBurst;
+
+    @Value("${auth.throttle.account.per-minute:6}")
+    private double accountPerMinute;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor hashingExecutor,
+                                  MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
+        this.meterRegistry = meterRegistry;
+        this.ipBuckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(15))
+                .build();
+        this.accountBuckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(15))
+                .build();
+
+        Gauge.builder("auth.password.queue.depth", hashingExecutor,
+                        executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", hashingExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Password hashing tasks running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consume one attempt for the client IP and check, without consuming, that the account still has
+     * attempts left; throws when either is over its rate. The account is only charged by
+     * recordFailedAttempt, so successful logins never use up its budget.
+     */
+    public void checkThrottle(String clientIp, String account) {
+        if (clientIp != null) {
+            TokenBucketRateLimiter bucket = ipBuckets.get(clientIp,
+                    key -> new TokenBucketRateLimiter(ipBurst, ipPerMinute / 60.0));
+            if (!bucket.tryAcquire()) {
+                reject("ip");
+                throw new AuthThrottledException("Too many attempts, please try again later",
+                        retryAfterSeconds(bucket));
+            }
+        }
+        if (account != null) {
+            TokenBucketRateLimiter bucket = accountBucket(account);
+            if (!bucket.hasAvailableToken()) {
+                reject("account");
+                throw new AuthThrottledException("Too many attempts for this account, please try again later",
+                        retryAfterSeconds(bucket));
+            }
+        }
+    }
+
+    /**
+     * Charge the account for a login that failed verification (unknown account or wrong password)
+     */
+    public void recordFailedAttempt(String account) {
+        if (account != null) {
+            accountBucket(account).tryAcquire();
+        }
+    }
+
+    private TokenBucketRateLimiter accountBucket(String account) {
+        return accountBuckets.get(account.trim().toLowerCase(Locale.ROOT),
+                key -> new TokenBucketRateLimiter(accountBurst, accountPerMinute / 60.0));
+    }
+
+    public String encode(String rawPassword) {
+        return runOnPool("encode", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return runOnPool("matches", () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True when the stored hash was made with a weaker cost factor than the configured one
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T runOnPool(String operation, Supplier<T> work) {
+        Future<T> future;
+        try {
+            future = hashingExecutor.submit(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    return work.get();
+                } finally {
+                    sample.stop(Timer.builder("auth.password.hash")
+                            .description("BCrypt time on the hashing pool")
+                            .tag("operation", operation)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry));
+                }
+            });
+        } catch (TaskRejectedException e) {
+            reject("queue_full");
+            logger.warn("Password hashing queue full, rejecting {}", operation);
+            throw new AuthThrottledException("Server is busy, please try again shortly", 1);
+        }
+
+        try {
+            return future.get(hashTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            reject("timeout");
+            throw new AuthThrottledException("Server is busy, please try again shortly", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void reject(String reason) {
+        Counter.builder("auth.password.rejected")
+                .description("Authentication attempts refused before or instead of hashing")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private long retryAfterSeconds(TokenBucketRateLimiter bucket) {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(bucket.getMillisUntilNextToken() + 999));
+    }
+}
@@ -3,8 +3,11 @@ package com.spring.ollama.service;
 import com.lowagie.text.*;
 import com.lowagie.text.Font;
 import com.lowagie.text.pdf.PdfWriter;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -32,10 +35,19 @@ public class PdfGeneratorService {
     private static final Font NORMAL_FONT = new Font(Font.HELVETICA, 11, Font.NORMAL, new Color(33, 37, 41));
     private static final Font BOLD_FONT = new Font(Font.HELVETICA, 11, Font.BOLD, new Color(33, 37, 41));
 
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
     /**
      * Generate PDF from fitness plan text
      */
     public String generateFitnessPlanPdf(String content, String fileName) {
+        return Observation.createNotStarted("fitness.pdf.render", observationRegistry)
+                .lowCardinalityKeyValue("layout", "text")
+                .observe(() -> renderFitnessPlanPdf(content, fileName));
+    }
+
+    private String renderFitnessPlanPdf(String content, String fileName) {
         logger.info("Starting PDF generation for: {}", fileName);
 
         try {
@@ -88,6 +100,13 @@ public class PdfGeneratorService {
      */
     public String generateStructuredFitnessPlanPdf(String workoutPlan, String mealPlan,
                                                    String supplements, String fileName) {
+        return Observation.createNotStarted("fitness.pdf.render", observationRegistry)
+                .lowCardinalityKeyValue("layout", "structured")
+                .observe(() -> renderStructuredFitnessPlanPdf(workoutPlan, mealPlan, supplements, fileName));
+    }
+
+    private String renderStructuredFitnessPlanPdf(String workoutPlan, String mealPlan,
+                                                  String supplements, String fileName) {
         logger.info("Starting structured PDF generation for: {}", fileName);
 
         try {
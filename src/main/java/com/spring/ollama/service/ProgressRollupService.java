@@ -0,0 +1,250 @@
+package com.spring.ollama.service;
+
+import com.spring.ollama.dto.ProgressTrendResponse;
+import com.spring.ollama.entity.DaySummary;
+import com.spring.ollama.entity.MealPlan;
+import com.spring.ollama.entity.ProgressRollup;
+import com.spring.ollama.entity.WorkoutPlan;
+import com.spring.ollama.event.UserDataResetEvent;
+import com.spring.ollama.repository.ProgressRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Maintains per-user daily and weekly progress rollups.
+ *
+ * On every DaySummary / WorkoutPlan / MealPlan write the contributing fields of that source
+ * for that user and date are recomputed (an indexed read of the day's few documents) and
+ * swapped into the DAY rollup with findAndModify. The difference from the previous values is
+ * then applied to the WEEK rollup with $inc, so weeks never need to be rebuilt from raw rows.
+ */
+@Service
+public class ProgressRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProgressRollupService.class);
+
+    private static final int MAX_TREND_DAYS = 366;
+
+    private static final Map<String, Integer> PERFORMANCE_SCORES = Map.of(
+            "EXCELLENT", 4, "GOOD", 3, "AVERAGE", 2, "POOR", 1);
+
+    // Rollup counters by field name, to diff previous DAY values against recomputed ones
+    private static final Map<String, Function<ProgressRollup, Long>> ROLLUP_FIELDS = Map.of(
+            "workoutPlans", ProgressRollup::getWorkoutPlans,
+            "exercisesPlanned", ProgressRollup::getExercisesPlanned,
+            "exercisesCompleted", ProgressRollup::getExercisesCompleted,
+            "mealPlans", ProgressRollup::getMealPlans,
+            "mealsPlanned", ProgressRollup::getMealsPlanned,
+            "mealsConsumed", ProgressRollup::getMealsConsumed,
+            "caloriesTarget", ProgressRollup::getCaloriesTarget,
+            "caloriesConsumed", ProgressRollup::getCaloriesConsumed,
+            "summaries", ProgressRollup::getSummaries,
+            "performanceScoreTotal", ProgressRollup::getPerformanceScoreTotal);
+
+    private final MongoTemplate mongoTemplate;
+    private final ProgressRollupRepository progressRollupRepository;
+
+    public ProgressRollupService(MongoTemplate mongoTemplate, ProgressRollupRepository progressRollupRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.progressRollupRepository = progressRollupRepository;
+    }
+
+    /**
+     * Refresh the workout fields of the user's day rollup (and the week by delta)
+     */
+    public void refreshWorkouts(String userId, LocalDate date) {
+        Query query = sourceQuery("targetDate", userId, date);
+        query.fields().include("exercises.completed");
+
+        long plans = 0, planned = 0, completed = 0;
+        for (WorkoutPlan plan : mongoTemplate.find(query, WorkoutPlan.class)) {
+            plans++;
+            if (plan.getExercises() != null) {
+                planned += plan.getExercises().size();
+                completed += plan.getExercises().stream().filter(WorkoutPlan.Exercise::isCompleted).count();
+            }
+        }
+
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("workoutPlans", plans);
+        values.put("exercisesPlanned", planned);
+        values.put("exercisesCompleted", completed);
+        applyDayValues(userId, date, values);
+    }
+
+    /**
+     * Refresh the meal and calorie fields of the user's day rollup (and the week by delta)
+     */
+    public void refreshMeals(String userId, LocalDate date) {
+        Query query = sourceQuery("targetDate", userId, date);
+        query.fields().include("targetCalories", "nutritionSummary.totalCalories",
+                "meals.consumed", "meals.calories");
+
+        long plans = 0, planned = 0, consumed = 0, caloriesTarget = 0, caloriesConsumed = 0;
+        for (MealPlan plan : mongoTemplate.find(query, MealPlan.class)) {
+            plans++;
+            if (plan.getTargetCalories() != null) {
+                caloriesTarget += plan.getTargetCalories();
+            } else if (plan.getNutritionSummary() != null && plan.getNutritionSummary().getTotalCalories() != null) {
+                caloriesTarget += plan.getNutritionSummary().getTotalCalories();
+            }
+            if (plan.getMeals() != null) {
+                for (MealPlan.Meal meal : plan.getMeals()) {
+                    planned++;
+                    if (meal.isConsumed()) {
+                        consumed++;
+                        caloriesConsumed += meal.getCalories() != null ? meal.getCalories() : 0;
+                    }
+                }
+            }
+        }
+
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("mealPlans", plans);
+        values.put("mealsPlanned", planned);
+        values.put("mealsConsumed", consumed);
+        values.put("caloriesTarget", caloriesTarget);
+        values.put("caloriesConsumed", caloriesConsumed);
+        applyDayValues(userId, date, values);
+    }
+
+    /**
+     * Refresh the summary/performance fields of the user's day rollup (and the week by delta)
+     */
+    public void refreshSummaries(String userId, LocalDate date) {
+        Query query = sourceQuery("date", userId, date);
+        query.fields().include("overallPerformance");
+
+        long summaries = 0, scoreTotal = 0;
+        for (DaySummary summary : mongoTemplate.find(query, DaySummary.class)) {
+            summaries++;
+            if (summary.getOverallPerformance() != null) {
+                scoreTotal += PERFORMANCE_SCORES.getOrDefault(summary.getOverallPerformance().toUpperCase(), 0);
+            }
+        }
+
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("summaries", summaries);
+        values.put("performanceScoreTotal", scoreTotal);
+        applyDayValues(userId, date, values);
+    }
+
+    /**
+     * Weekly overview: the single WEEK rollup containing startDate
+     */
+    public ProgressRollup getWeeklyOverview(String userId, LocalDate startDate) {
+        LocalDate weekStart = weekStart(startDate);
+        return progressRollupRepository.findById(ProgressRollup.idFor(userId, ProgressRollup.WEEK, weekStart))
+                .orElseGet(() -> emptyRollup(userId, ProgressRollup.WEEK, weekStart));
+    }
+
+    /**
+     * Progress trends over the last N days: one DAY rollup per active day plus the covering weeks
+     */
+    public ProgressTrendResponse getProgressTrends(String userId, int days) {
+        int window = Math.max(1, Math.min(days, MAX_TREND_DAYS));
+        LocalDate from = LocalDate.now().minusDays(window - 1L);
+
+        List<ProgressRollup> daily = progressRollupRepository
+                .findByUserIdAndPeriodAndPeriodStartGreaterThanEqualOrderByPeriodStartAsc(
+                        userId, ProgressRollup.DAY, from);
+        List<ProgressRollup> weekly = progressRollupRepository
+                .findByUserIdAndPeriodAndPeriodStartGreaterThanEqualOrderByPeriodStartAsc(
+                        userId, ProgressRollup.WEEK, weekStart(from));
+
+        return new ProgressTrendResponse(userId, window, daily, weekly);
+    }
+
+    /**
+     * Drop all rollups when a user's routine data is reset
+     */
+    @EventListener
+    public void onUserDataReset(UserDataResetEvent event) {
+        long removed = mongoTemplate.remove(Query.query(Criteria.where("userId").is(event.getUserId())),
+                ProgressRollup.class).getDeletedCount();
+        logger.info("Removed {} progress rollups for user: {}", removed, event.getUserId());
+    }
+
+    private Query sourceQuery(String dateField, String userId, LocalDate date) {
+        return Query.query(Criteria.where("userId").is(userId).and(dateField).is(date));
+    }
+
+    /**
+     * Swap the recomputed source values into the DAY rollup and push the delta into the WEEK rollup
+     */
+    private void applyDayValues(String userId, LocalDate date, Map<String, Long> values) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Update dayUpdate = new Update()
+                .setOnInsert("userId", userId)
+                .setOnInsert("period", ProgressRollup.DAY)
+                .setOnInsert("periodStart", date)
+                .set("updatedAt", now);
+        values.forEach(dayUpdate::set);
+
+        // returnNew(false): we need the previous values to compute the delta
+        ProgressRollup previous = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(ProgressRollup.idFor(userId, ProgressRollup.DAY, date))),
+                dayUpdate,
+                FindAndModifyOptions.options().upsert(true).returnNew(false),
+                ProgressRollup.class);
+
+        Update weekUpdate = new Update()
+                .setOnInsert("userId", userId)
+                .setOnInsert("period", ProgressRollup.WEEK)
+                .setOnInsert("periodStart", weekStart(date))
+                .set("updatedAt", now);
+        boolean changed = false;
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            long delta = entry.getValue() - previousValue(previous, entry.getKey());
+            if (delta != 0) {
+                weekUpdate.inc(entry.getKey(), delta);
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("_id").is(ProgressRollup.idFor(userId, ProgressRollup.WEEK, weekStart(date)))),
+                    weekUpdate,
+                    ProgressRollup.class);
+        }
+    }
+
+    private long previousValue(ProgressRollup previous, String field) {
+        if (previous == null) {
+            return 0;
+        }
+        return Optional.ofNullable(ROLLUP_FIELDS.get(field)).map(getter -> getter.apply(previous)).orElse(0L);
+    }
+
+    private LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private ProgressRollup emptyRollup(String userId, String period, LocalDate periodStart) {
+        ProgressRollup rollup = new ProgressRollup();
+        rollup.setId(ProgressRollup.idFor(userId, period, periodStart));
+        rollup.setUserId(userId);
+        rollup.setPeriod(period);
+        rollup.setPeriodStart(periodStart);
+        return rollup;
+    }
+}
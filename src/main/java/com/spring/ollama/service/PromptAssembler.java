@@ -0,0 +1,78 @@
+package com.spring.ollama.service;
+
+/**
+ * Builds user prompts as a fixed instruction block followed by the per-user data.
+ *
+ * Ollama reuses the KV cache for the longest prefix shared with the previous request, so the
+ * system prompt plus everything before the first user-specific byte is only evaluated once.
+ * To keep that prefix byte-identical across users and days, the instructions are passed in
+ * once, up front, and must be a constant (a static final text block) - anything that varies
+ * goes through section()/field()/line(), which only ever append after it.
+ */
+public final class PromptAssembler {
+
+    private final StringBuilder prompt;
+    private final int prefixLength;
+
+    private PromptAssembler(String instructions) {
+        this.prompt = new StringBuilder(instructions.length() + 512).append(instructions);
+        if (!instructions.endsWith("\n")) {
+            prompt.append('\n');
+        }
+        this.prefixLength = prompt.length();
+    }
+
+    /**
+     * Start a prompt with its constant instructions
+     */
+    public static PromptAssembler withInstructions(String instructions) {
+        return new PromptAssembler(instructions);
+    }
+
+    /**
+     * Start a variable section: "\n=== TITLE ===\n"
+     */
+    public PromptAssembler section(String title) {
+        prompt.append("\n=== ").append(title).append(" ===\n");
+        return this;
+    }
+
+    /**
+     * "Label: value" line; skipped when the value is null
+     */
+    public PromptAssembler field(String label, Object value) {
+        return field(label, value, "");
+    }
+
+    /**
+     * "Label: value unit" line; skipped when the value is null
+     */
+    public PromptAssembler field(String label, Object value, String unit) {
+        if (value != null) {
+            prompt.append(label).append(": ").append(value).append(unit).append('\n');
+        }
+        return this;
+    }
+
+    /**
+     * Free-form variable text; a trailing newline is added if missing
+     */
+    public PromptAssembler line(String text) {
+        prompt.append(text);
+        if (!text.endsWith("\n")) {
+            prompt.append('\n');
+        }
+        return this;
+    }
+
+    /**
+     * Length of the shared (cacheable) prefix in characters
+     */
+    public int getPrefixLength() {
+        return prefixLength;
+    }
+
+    public String build() {
+        return prompt.toString();
+    }
+}
@@ -0,0 +1,164 @@
+package com.spring.ollama.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Token-bucket budgets for the LLM endpoints, one bucket per client and cost class.
+ * Buckets are lock-free (TokenBucketRateLimiter is a single CAS'd timestamp) and held in
+ * bounded Caffeine maps, so concurrent clients never contend on a shared lock.
+ */
+@Service
+public class RateLimitService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitService.class);
+
+    /**
+     * How expensive an endpoint is for the Ollama backend
+     */
+    public enum CostClass {
+        ASK, PLAN, PDF
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.ask.burst:10}")
+    private int askBurst;
+
+    @Value("${rate-limit.ask.per-minute:30}")
+    private double askPerMinute;
+
+    @Value("${rate-limit.plan.burst:3}")
+    private int planBurst;
+
+    @Value("${rate-limit.plan.per-minute:6}")
+    private double planPerMinute;
+
+    @Value("${rate-limit.pdf.burst:2}")
+    private int pdfBurst;
+
+    @Value("${rate-limit.pdf.per-minute:2}")
+    private double pdfPerMinute;
+
+    // X-API-Key values accepted as a client identity; unknown keys fall back to the IP
+    @Value("${rate-limit.api-keys:}")
+    private String apiKeys;
+
+    @Value("${rate-limit.max-clients:100000}")
+    private long maxClients;
+
+    private final Map<CostClass, Cache<String, TokenBucketRateLimiter>> buckets = new EnumMap<>(CostClass.class);
+    private final Map<CostClass, Counter> rejected = new EnumMap<>(CostClass.class);
+    private Set<String> knownApiKeys;
+
+    public RateLimitService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        for (CostClass costClass : CostClass.values()) {
+            buckets.put(costClass, Caffeine.newBuilder()
+                    .maximumSize(maxClients)
+                    .expireAfterAccess(Duration.ofMinutes(15))
+                    .build());
+            rejected.put(costClass, Counter.builder("http.ratelimit.rejected")
+                    .tag("class", costClass.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        knownApiKeys = Arrays.stream(apiKeys.split(","))
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        logger.info("Rate limiting {} (ask {}/min, plan {}/min, pdf {}/min)",
+                enabled ? "enabled" : "disabled", askPerMinute, planPerMinute, pdfPerMinute);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isKnownApiKey(String apiKey) {
+        return apiKey != null && knownApiKeys.contains(apiKey);
+    }
+
+    /**
+     * Consume one request from the client's budget for the cost class
+     */
+    public Decision tryConsume(String clientKey, CostClass costClass) {
+        TokenBucketRateLimiter bucket = buckets.get(costClass).get(clientKey, key -> newBucket(costClass));
+        boolean allowed = bucket.tryAcquire();
+        if (!allowed) {
+            rejected.get(costClass).increment();
+            logger.debug("Rate limited {} on {}", clientKey, costClass);
+        }
+        return new Decision(allowed, bucket, windowSeconds(costClass));
+    }
+
+    private TokenBucketRateLimiter newBucket(CostClass costClass) {
+        return switch (costClass) {
+            case ASK -> new TokenBucketRateLimiter(askBurst, askPerMinute / 60.0);
+            case PLAN -> new TokenBucketRateLimiter(planBurst, planPerMinute / 60.0);
+            case PDF -> new TokenBucketRateLimiter(pdfBurst, pdfPerMinute / 60.0);
+        };
+    }
+
+    // Time to refill a full burst, advertised as the policy window
+    private long windowSeconds(CostClass costClass) {
+        return switch (costClass) {
+            case ASK -> Math.max(1, Math.round(askBurst * 60.0 / askPerMinute));
+            case PLAN -> Math.max(1, Math.round(planBurst * 60.0 / planPerMinute));
+            case PDF -> Math.max(1, Math.round(pdfBurst * 60.0 / pdfPerMinute));
+        };
+    }
+
+    /**
+     * Outcome of one check, with the values reported in the RateLimit-* headers
+     */
+    public static class Decision {
+        private final boolean allowed;
+        private final int limit;
+        private final int remaining;
+        private final long resetSeconds;
+        private final long retryAfterSeconds;
+        private final long windowSeconds;
+
+        Decision(boolean allowed, TokenBucketRateLimiter bucket, long windowSeconds) {
+            this.allowed = allowed;
+            this.limit = bucket.getCapacity();
+            this.remaining = bucket.getAvailableTokens();
+            this.resetSeconds = ceilSeconds(bucket.getMillisUntilFull());
+            this.retryAfterSeconds = Math.max(1, ceilSeconds(bucket.getMillisUntilNextToken()));
+            this.windowSeconds = windowSeconds;
+        }
+
+        private static long ceilSeconds(long millis) {
+            return TimeUnit.MILLISECONDS.toSeconds(millis + 999);
+        }
+
+        public boolean isAllowed() { return allowed; }
+        public int getLimit() { return limit; }
+        public int getRemaining() { return remaining; }
+        public long getResetSeconds() { return resetSeconds; }
+        public long getRetryAfterSeconds() { return retryAfterSeconds; }
+        public long getWindowSeconds() { return windowSeconds; }
+    }
+}
@@ -0,0 +1,94 @@
+package com.spring.ollama.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.ollama.entity.DaySummary;
+import com.spring.ollama.event.UserDataResetEvent;
+import com.spring.ollama.repository.DaySummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Builds the "recent progress" block for personalised prompts from the user's last N
+ * day summaries, and caches the compact string per user. The cache entry is dropped
+ * whenever one of the user's summaries is saved or their data is reset.
+ */
+@Service
+public class RecentSummaryContextService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecentSummaryContextService.class);
+
+    private static final int MAX_FIELD_LENGTH = 200;
+
+    private final DaySummaryRepository daySummaryRepository;
+    private final int recentSummaries;
+    private final Cache<String, String> contextCache;
+
+    public RecentSummaryContextService(DaySummaryRepository daySummaryRepository,
+                                       @Value("${ai.context.recent-summaries:5}") int recentSummaries,
+                                       @Value("${ai.context.cache.max-users:10000}") long maxUsers,
+                                       @Value("${ai.context.cache.expire-after-access-ms:3600000}") long expireAfterAccessMs) {
+        this.daySummaryRepository = daySummaryRepository;
+        this.recentSummaries = recentSummaries;
+        this.contextCache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMillis(expireAfterAccessMs))
+                .build();
+    }
+
+    /**
+     * Compact summary of the user's last N days, or an empty string when there is no history
+     */
+    public String getRecentSummaryContext(String userId) {
+        return contextCache.get(userId, this::buildContext);
+    }
+
+    /**
+     * Drop the cached context for a user (called when their summaries change)
+     */
+    public void evict(String userId) {
+        contextCache.invalidate(userId);
+    }
+
+    @EventListener
+    public void onUserDataReset(UserDataResetEvent event) {
+        evict(event.getUserId());
+    }
+
+    private String buildContext(String userId) {
+        List<DaySummary> summaries = daySummaryRepository.findRecentSummaries(
+                userId, PageRequest.of(0, recentSummaries));
+        logger.debug("Building recent summary context for user: {} from {} summaries", userId, summaries.size());
+
+        StringBuilder context = new StringBuilder();
+        for (DaySummary summary : summaries) {
+            context.append("- ").append(summary.getDate());
+            appendField(context, "performance", summary.getOverallPerformance());
+            appendField(context, "summary", summary.getSummary());
+            if (summary.getAchievements() != null && !summary.getAchievements().isEmpty()) {
+                appendField(context, "went well", String.join("; ", summary.getAchievements()));
+            }
+            if (summary.getImprovements() != null && !summary.getImprovements().isEmpty()) {
+                appendField(context, "to improve", String.join("; ", summary.getImprovements()));
+            }
+            appendField(context, "next focus", summary.getNextDayFocus());
+            context.append('\n');
+        }
+        return context.toString();
+    }
+
+    private void appendField(StringBuilder context, String label, String value) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String trimmed = value.length() > MAX_FIELD_LENGTH ? value.substring(0, MAX_FIELD_LENGTH) + "..." : value;
+        context.append(" | ").append(label).append(": ").append(trimmed);
+    }
+}
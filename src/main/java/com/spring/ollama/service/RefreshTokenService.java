@@ -0,0 +1,81 @@
+package com.spring.ollama.service;
+
+import com.spring.ollama.entity.RefreshToken;
+import com.spring.ollama.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Opaque, single-use refresh tokens. Only the SHA-256 of a token is persisted; redeeming one
+ * removes it atomically, so a replayed token fails.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final MongoTemplate mongoTemplate;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // Refresh token lifetime (default: 7 days)
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long refreshExpirationMs;
+
+    public RefreshTokenService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Issue a new refresh token for the user and return the raw value (shown to the client once)
+     */
+    public String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setId(JwtService.tokenHash(raw));
+        refreshToken.setUserId(user.getId());
+        refreshToken.setSubject(user.getEmail());
+        refreshToken.setExpiresAt(new Date(System.currentTimeMillis() + refreshExpirationMs));
+        mongoTemplate.insert(refreshToken);
+        return raw;
+    }
+
+    /**
+     * Redeem a refresh token: removes and returns it if it exists and has not expired
+     */
+    public Optional<RefreshToken> redeem(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return Optional.empty();
+        }
+        Query query = Query.query(Criteria.where("_id").is(JwtService.tokenHash(raw))
+                .and("expiresAt").gt(new Date()));
+        return Optional.ofNullable(mongoTemplate.findAndRemove(query, RefreshToken.class));
+    }
+
+    public void revoke(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return;
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(JwtService.tokenHash(raw))), RefreshToken.class);
+    }
+
+    public void revokeAllForUser(String userId) {
+        long removed = mongoTemplate.remove(Query.query(Criteria.where("userId").is(userId)), RefreshToken.class)
+                .getDeletedCount();
+        logger.info("Removed {} refresh tokens for user {}", removed, userId);
+    }
+}
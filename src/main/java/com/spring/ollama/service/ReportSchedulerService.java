@@ -1,13 +1,21 @@
 package com.spring.ollama.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.spring.ollama.dto.CompleteFitnessPlanRequest;
 import com.spring.ollama.dto.ScheduledReportRequest;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -27,21 +35,31 @@ public class ReportSchedulerService {
     private final PdfGeneratorService pdfGeneratorService;
     private final EmailService emailService;
     private final WhatsAppService whatsAppService;
+    private final ObservationRegistry observationRegistry;
+    private final ObjectProvider<Tracer> tracerProvider;
 
     // Store scheduled tasks
     private final Map<String, ScheduledFuture<?>> scheduledTasks = new ConcurrentHashMap<>();
     private final Map<String, ScheduledReportRequest> scheduledReports = new ConcurrentHashMap<>();
+    private final Cache<String, EmailDeliveryStatus> lastEmailDelivery = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofDays(7))
+            .build();
 
     public ReportSchedulerService(TaskScheduler taskScheduler,
                                   FitnessAiService fitnessAiService,
                                   PdfGeneratorService pdfGeneratorService,
                                   EmailService emailService,
-                                  WhatsAppService whatsAppService) {
+                                  WhatsAppService whatsAppService,
+                                  ObservationRegistry observationRegistry,
+                                  ObjectProvider<Tracer> tracerProvider) {
         this.taskScheduler = taskScheduler;
         this.fitnessAiService = fitnessAiService;
         this.pdfGeneratorService = pdfGeneratorService;
         this.emailService = emailService;
         this.whatsAppService = whatsAppService;
+        this.observationRegistry = observationRegistry;
+        this.tracerProvider = tracerProvider;
         logger.info("ReportSchedulerService initialized");
     }
 
@@ -59,7 +77,8 @@ public class ReportSchedulerService {
                     .toInstant();
 
             // Create the task
-            Runnable task = () -> executeReportGeneration(scheduleId, request);
+            String schedulingTraceId = currentTraceId();
+            Runnable task = () -> executeReportGeneration(scheduleId, request, schedulingTraceId);
 
             // Schedule the task
             ScheduledFuture<?> scheduledTask = taskScheduler.schedule(task, scheduledInstant);
@@ -89,7 +108,8 @@ public class ReportSchedulerService {
             CronTrigger cronTrigger = new CronTrigger(request.getCronExpression());
 
             // Create the task
-            Runnable task = () -> executeReportGeneration(scheduleId, request);
+            String schedulingTraceId = currentTraceId();
+            Runnable task = () -> executeReportGeneration(scheduleId, request, schedulingTraceId);
 
             // Schedule the task
             ScheduledFuture<?> scheduledTask = taskScheduler.schedule(task, cronTrigger);
@@ -107,10 +127,30 @@ public class ReportSchedulerService {
         }
     }
 
+    /**
+     * Each run is its own trace (a cron run hours later is not part of the request that
+     * scheduled it); the scheduling request's trace id is kept on the root span for lookup.
+     * Stages below it - generation, PDF, delivery - are child spans.
+     */
+    private void executeReportGeneration(String scheduleId, ScheduledReportRequest request, String schedulingTraceId) {
+        Observation.createNotStarted("fitness.report", observationRegistry)
+                .lowCardinalityKeyValue("trigger", "schedule")
+                .lowCardinalityKeyValue("schedule.type", String.valueOf(request.getScheduleType()))
+                .highCardinalityKeyValue("schedule.id", scheduleId)
+                .highCardinalityKeyValue("scheduled.by.trace", schedulingTraceId != null ? schedulingTraceId : "none")
+                .observe(() -> runReportGeneration(scheduleId, request));
+    }
+
+    private String currentTraceId() {
+        Tracer tracer = tracerProvider.getIfAvailable();
+        Span span = tracer != null ? tracer.currentSpan() : null;
+        return span != null ? span.context().traceId() : null;
+    }
+
     /**
      * Execute report generation task
      */
-    private void executeReportGeneration(String scheduleId, ScheduledReportRequest request) {
+    private void runReportGeneration(String scheduleId, ScheduledReportRequest request) {
         logger.info("Executing scheduled report generation: {}", scheduleId);
 
         try {
@@ -147,12 +187,12 @@ public class ReportSchedulerService {
                 logger.debug("Sending email for schedule: {}", scheduleId);
                 String reportName = request.getReportName() != null ?
                         request.getReportName() : "Fitness Plan " + scheduleId;
-                emailService.sendScheduledReportNotification(
-                        request.getEmail(),
-                        reportName,
-                        pdfPath
-                );
-                logger.info("Email sent to: {}", request.getEmail());
+                // Batched with the other schedules firing now; sent by EmailService's flush
+                String email = request.getEmail();
+                emailService.queueScheduledReportNotification(scheduleId, email, reportName, pdfPath)
+                        .whenComplete((sent, error) -> recordEmailDelivery(scheduleId, email,
+                                Boolean.TRUE.equals(sent) && error == null));
+                logger.info("Email queued for: {}", email);
             }
 
             // Send WhatsApp message if requested
@@ -201,6 +241,27 @@ public class ReportSchedulerService {
         }
     }
 
+    /**
+     * Outcome of the batched email for a schedule run, kept after one-time schedules are removed
+     */
+    private void recordEmailDelivery(String scheduleId, String email, boolean sent) {
+        lastEmailDelivery.put(scheduleId, new EmailDeliveryStatus(sent ? "SENT" : "FAILED", LocalDateTime.now()));
+        if (sent) {
+            logger.info("Scheduled report email delivered for schedule {} to: {}", scheduleId, email);
+        } else {
+            logger.error("Scheduled report email failed for schedule {} to: {}", scheduleId, email);
+        }
+    }
+
+    /**
+     * Last email delivery outcome for a schedule, or null if it has not sent one yet
+     */
+    public EmailDeliveryStatus getLastEmailDelivery(String scheduleId) {
+        return lastEmailDelivery.getIfPresent(scheduleId);
+    }
+
+    public record EmailDeliveryStatus(String status, LocalDateTime at) {}
+
     /**
      * Cancel a scheduled report
      */
@@ -0,0 +1,78 @@
+package com.spring.ollama.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Minimal consecutive-failure circuit breaker.
+ * CLOSED -> OPEN after N consecutive failures, OPEN -> HALF_OPEN after the open duration,
+ * HALF_OPEN lets a single trial call through and closes again on success.
+ */
+public class SimpleCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimpleCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public SimpleCircuitBreaker(String name, int failureThreshold, long openDurationMs) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMs = openDurationMs;
+    }
+
+    /**
+     * Check whether a call may proceed right now
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+            logger.info("Circuit breaker '{}' moved to HALF_OPEN", name);
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+
+        return state == State.CLOSED;
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Circuit breaker '{}' CLOSED after successful call", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                logger.warn("Circuit breaker '{}' OPEN after {} consecutive failures", name, consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
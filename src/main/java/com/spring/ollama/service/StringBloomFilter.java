@@ -0,0 +1,66 @@
+package com.spring.ollama.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings. mightContain() never returns false for an added
+ * value; it returns true for a value never added with roughly the configured probability.
+ * Sized once at construction - rebuild into a new instance to grow or to forget entries.
+ */
+public class StringBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int numBits;
+    private final int numHashes;
+
+    public StringBloomFilter(int expectedEntries, double falsePositiveRate) {
+        int n = Math.max(1, expectedEntries);
+        double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        this.numBits = (int) Math.max(64, Math.min(Integer.MAX_VALUE - 63, m));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((numBits + 63) / 64);
+    }
+
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1) | 1L;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (int) Math.floorMod(h1 + i * h2, (long) numBits);
+            long mask = 1L << (bit & 63);
+            bits.accumulateAndGet(bit >>> 6, mask, (current, m) -> current | m);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1) | 1L;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (int) Math.floorMod(h1 + i * h2, (long) numBits);
+            if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a 64 over the UTF-16 chars
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    // MurmurHash3 fmix64 finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -3,6 +3,7 @@ package com.spring.ollama.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.ollama.config.LlmMetricsAdvisor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
@@ -94,6 +95,7 @@ public class StructuredFitnessPlanService {
         try {
             String response = chatClient
                     .prompt(prompt)
+                    .advisors(a -> a.param(LlmMetricsAdvisor.PROMPT_TYPE, "structured_json"))
                     .call()
                     .content();
 
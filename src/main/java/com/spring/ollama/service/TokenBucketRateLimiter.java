@@ -0,0 +1,103 @@
+package com.spring.ollama.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket (implemented as GCRA - a single "theoretical arrival time" updated with CAS).
+ * A bucket holds up to {@code capacity} tokens and refills at {@code permitsPerSecond}.
+ */
+public class TokenBucketRateLimiter {
+
+    private final int capacity;
+    private final long intervalNanos;       // time to refill one token
+    private final long burstWindowNanos;    // capacity * interval
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucketRateLimiter(int capacity, double permitsPerSecond) {
+        if (capacity < 1 || permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and permitsPerSecond must be positive");
+        }
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstWindowNanos = intervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime() - burstWindowNanos);
+    }
+
+    /**
+     * Take a token if one is available, never blocks
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrival.get();
+            long newTat = Math.max(tat, now - burstWindowNanos) + intervalNanos;
+
+            if (newTat - now > 0) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * True when tryAcquire would succeed right now; takes nothing
+     */
+    public boolean hasAvailableToken() {
+        long now = System.nanoTime();
+        return Math.max(theoreticalArrival.get(), now - burstWindowNanos) + intervalNanos - now <= 0;
+    }
+
+    /**
+     * Reserve a token and wait until it becomes available
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrival.get();
+            long newTat = Math.max(tat, now - burstWindowNanos) + intervalNanos;
+
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                waitNanos = newTat - now;
+                break;
+            }
+        }
+
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Tokens currently available (approximate, for reporting)
+     */
+    public int getAvailableTokens() {
+        long now = System.nanoTime();
+        long used = Math.max(0L, theoreticalArrival.get() - (now - burstWindowNanos));
+        return (int) Math.max(0L, (burstWindowNanos - used) / intervalNanos);
+    }
+
+    /**
+     * Milliseconds until the bucket is completely full again
+     */
+    public long getMillisUntilFull() {
+        long now = System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0L, theoreticalArrival.get() + burstWindowNanos - now));
+    }
+
+    /**
+     * Milliseconds until the next token becomes available (0 if one is available now)
+     */
+    public long getMillisUntilNextToken() {
+        long now = System.nanoTime();
+        long nextTat = Math.max(theoreticalArrival.get(), now - burstWindowNanos) + intervalNanos;
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0L, nextTat - now));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,249 @@
+package com.spring.ollama.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.ollama.entity.RevokedToken;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Access-token revocation checked on every authenticated request.
+ *
+ * All revoked ids are held in an in-memory Bloom filter, so the common case (token not revoked)
+ * costs a couple of memory probes. Only a Bloom hit is confirmed against Mongo, and the answer
+ * is cached. Revocations made on this node go into the filter immediately; revocations made on
+ * other nodes are picked up by an incremental refresh on revokedAt, and the filter is rebuilt
+ * periodically so entries removed by the TTL index stop occupying it.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.expiration:900000}")
+    private long accessTokenTtlMs;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    // Overlap applied to the refresh cursor to tolerate clock skew between writers
+    @Value("${jwt.revocation.clock-skew-ms:2000}")
+    private long clockSkewMs;
+
+    @Value("${jwt.revocation.confirm-cache.max-size:10000}")
+    private long confirmCacheMaxSize;
+
+    private volatile StringBloomFilter filter;
+    private volatile Date cursor = new Date(0);
+    private final AtomicLong loadedEntries = new AtomicLong();
+
+    // Bloom hits confirmed against Mongo: empty = false positive
+    private Cache<String, Optional<RevokedToken>> confirmed;
+
+    private Counter revokedHits;
+    private Counter falsePositives;
+
+    public TokenRevocationService(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        filter = new StringBloomFilter(expectedEntries, falsePositiveRate);
+        confirmed = Caffeine.newBuilder()
+                .maximumSize(confirmCacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(accessTokenTtlMs))
+                .build();
+
+        revokedHits = Counter.builder("auth.revocation.bloom.hits").tag("result", "revoked").register(meterRegistry);
+        falsePositives = Counter.builder("auth.revocation.bloom.hits").tag("result", "false_positive").register(meterRegistry);
+        Gauge.builder("auth.revocation.entries", loadedEntries, AtomicLong::get)
+                .description("Revocation entries loaded into the Bloom filter")
+                .register(meterRegistry);
+
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Cursor stays at epoch, so the first scheduled refresh loads everything
+            logger.error("Initial revocation load failed; will retry on next refresh", e);
+        }
+    }
+
+    /**
+     * True when the token's jti was revoked, or when all sessions of its subject were revoked
+     * after it was issued
+     */
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && filter.mightContain(jti) && confirm(jti).isPresent()) {
+            return true;
+        }
+
+        String subject = claims.getSubject();
+        if (subject != null) {
+            String key = RevokedToken.sessionKey(subject);
+            if (filter.mightContain(key)) {
+                Optional<RevokedToken> entry = confirm(key);
+                Date issuedAt = claims.getIssuedAt();
+                return entry.isPresent() && entry.get().getNotBefore() != null
+                        && (issuedAt == null || issuedAt.before(entry.get().getNotBefore()));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Revoke a single access token until it would have expired anyway
+     */
+    public void revokeAccessToken(Claims claims) {
+        if (claims.getId() == null) {
+            return;
+        }
+
+        RevokedToken entry = new RevokedToken();
+        entry.setId(claims.getId());
+        entry.setType(RevokedToken.ACCESS);
+        entry.setSubject(claims.getSubject());
+        entry.setRevokedAt(new Date());
+        entry.setExpiresAt(claims.getExpiration() != null
+                ? claims.getExpiration() : new Date(System.currentTimeMillis() + accessTokenTtlMs));
+
+        mongoTemplate.save(entry);
+        record(entry);
+        logger.info("Revoked access token {} for {}", entry.getId(), entry.getSubject());
+    }
+
+    /**
+     * Revoke every access token of the subject issued up to now. JWT iat has second precision,
+     * so the cut-off is rounded up to the next second - a token issued within the same second
+     * as the revocation is rejected too, never the other way round.
+     */
+    public void revokeAllSessions(String subject) {
+        long now = System.currentTimeMillis();
+
+        RevokedToken entry = new RevokedToken();
+        entry.setId(RevokedToken.sessionKey(subject));
+        entry.setType(RevokedToken.SESSION);
+        entry.setSubject(subject);
+        entry.setNotBefore(new Date((now / 1000 + 1) * 1000));
+        entry.setRevokedAt(new Date(now));
+        // Older access tokens are all expired by then
+        entry.setExpiresAt(new Date(now + accessTokenTtlMs + 1000));
+
+        mongoTemplate.save(entry);
+        record(entry);
+        logger.info("Revoked all sessions for {}", subject);
+    }
+
+    /**
+     * Pick up revocations written by other nodes since the last refresh
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:5000}",
+            initialDelayString = "${jwt.revocation.refresh-ms:5000}")
+    public void refresh() {
+        try {
+            Date since = new Date(Math.max(0, cursor.getTime() - clockSkewMs));
+            Query query = Query.query(Criteria.where("revokedAt").gte(since))
+                    .with(Sort.by(Sort.Direction.ASC, "revokedAt"));
+
+            List<RevokedToken> entries = mongoTemplate.find(query, RevokedToken.class);
+            for (RevokedToken entry : entries) {
+                record(entry);
+                if (entry.getRevokedAt() != null && entry.getRevokedAt().after(cursor)) {
+                    cursor = entry.getRevokedAt();
+                }
+            }
+            logger.debug("Revocation refresh loaded {} entries since {}", entries.size(), since);
+        } catch (Exception e) {
+            logger.warn("Revocation refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the filter from the live collection, dropping entries the TTL index has removed
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-ms:3600000}",
+            initialDelayString = "${jwt.revocation.rebuild-ms:3600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Revocation filter rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        Date started = new Date();
+        long count = mongoTemplate.count(new Query(), RevokedToken.class);
+        StringBloomFilter rebuilt = new StringBloomFilter(
+                (int) Math.min(Integer.MAX_VALUE, Math.max(expectedEntries, count * 2)), falsePositiveRate);
+
+        Query query = new Query();
+        query.fields().include("_id");
+        long loaded = 0;
+        try (Stream<RevokedToken> stream = mongoTemplate.stream(query, RevokedToken.class)) {
+            for (RevokedToken entry : (Iterable<RevokedToken>) stream::iterator) {
+                rebuilt.put(entry.getId());
+                loaded++;
+            }
+        }
+
+        filter = rebuilt;
+        loadedEntries.set(loaded);
+
+        // Replay anything revoked while the new filter was being built
+        cursor = started;
+        refresh();
+        logger.info("Revocation filter rebuilt with {} entries", loaded);
+    }
+
+    private void record(RevokedToken entry) {
+        filter.put(entry.getId());
+        confirmed.put(entry.getId(), Optional.of(entry));
+    }
+
+    /**
+     * Confirm a Bloom hit against Mongo. Fails closed: if the lookup errors, the token is
+     * treated as revoked.
+     */
+    private Optional<RevokedToken> confirm(String id) {
+        try {
+            Optional<RevokedToken> entry = confirmed.get(id,
+                    key -> Optional.ofNullable(mongoTemplate.findById(key, RevokedToken.class)));
+            (entry.isPresent() ? revokedHits : falsePositives).increment();
+            return entry;
+        } catch (RuntimeException e) {
+            logger.warn("Revocation lookup failed for {}, rejecting token: {}", id, e.getMessage());
+            RevokedToken unknown = new RevokedToken();
+            unknown.setId(id);
+            unknown.setNotBefore(new Date(Long.MAX_VALUE));
+            return Optional.of(unknown);
+        }
+    }
+}
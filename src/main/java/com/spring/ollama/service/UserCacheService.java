@@ -0,0 +1,147 @@
+package com.spring.ollama.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.spring.ollama.entity.User;
+import com.spring.ollama.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded in-process cache of User documents in front of UserRepository.findById.
+ *
+ * Writers on this node put the saved entity back (write-through). With
+ * users.cache.change-stream.enabled, a change stream on the users collection also evicts
+ * entries changed by other nodes - this needs Mongo running as a replica set.
+ * Cached instances are shared: callers must not mutate them, re-read from the repository
+ * before a read-modify-write.
+ */
+@Service
+public class UserCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheService.class);
+
+    private static final long CHANGE_STREAM_RETRY_MS = 5000;
+
+    private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, User> users;
+
+    @Value("${users.cache.change-stream.enabled:false}")
+    private boolean changeStreamEnabled;
+
+    private volatile Thread changeStreamThread;
+    private volatile boolean running = true;
+
+    public UserCacheService(UserRepository userRepository,
+                            MongoTemplate mongoTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${users.cache.max-size:10000}") long maxSize,
+                            @Value("${users.cache.ttl-ms:600000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size ... tagged cache=users
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    /**
+     * Cached findById; missing users are not cached
+     */
+    public Optional<User> findById(String userId) {
+        return Optional.ofNullable(users.get(userId, id -> userRepository.findById(id).orElse(null)));
+    }
+
+    /**
+     * Write-through after a save on this node
+     */
+    public void put(User user) {
+        if (user != null && user.getId() != null) {
+            users.put(user.getId(), user);
+        }
+    }
+
+    public void evict(String userId) {
+        users.invalidate(userId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startChangeStream() {
+        if (!changeStreamEnabled) {
+            return;
+        }
+        changeStreamThread = new Thread(this::watchUsers, "users-cache-change-stream");
+        changeStreamThread.setDaemon(true);
+        changeStreamThread.start();
+        logger.info("User cache change-stream invalidation started");
+    }
+
+    @PreDestroy
+    public void stopChangeStream() {
+        running = false;
+        if (changeStreamThread != null) {
+            changeStreamThread.interrupt();
+        }
+    }
+
+    private void watchUsers() {
+        String collection = mongoTemplate.getCollectionName(User.class);
+        while (running) {
+            try (MongoCursor<ChangeStreamDocument<Document>> cursor =
+                         mongoTemplate.getCollection(collection).watch().iterator()) {
+                while (running && cursor.hasNext()) {
+                    ChangeStreamDocument<Document> change = cursor.next();
+                    if (change.getDocumentKey() != null) {
+                        String userId = idOf(change.getDocumentKey().get("_id"));
+                        if (userId != null) {
+                            users.invalidate(userId);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("User cache change stream interrupted, retrying in {} ms: {}",
+                        CHANGE_STREAM_RETRY_MS, e.getMessage());
+                // Anything may have changed while disconnected
+                users.invalidateAll();
+                try {
+                    Thread.sleep(CHANGE_STREAM_RETRY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private String idOf(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : null;
+    }
+}
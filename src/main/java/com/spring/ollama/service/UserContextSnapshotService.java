@@ -0,0 +1,161 @@
+package com.spring.ollama.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.ollama.dto.UserContextSnapshot;
+import com.spring.ollama.entity.DailyRoutine;
+import com.spring.ollama.entity.StructuredJourney;
+import com.spring.ollama.entity.User;
+import com.spring.ollama.event.UserDataResetEvent;
+import com.spring.ollama.repository.DailyRoutineRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user context snapshot for plan generation. Built once from Mongo on a cache miss,
+ * then kept current in place from the writes themselves (user saves, routine saves), so
+ * generating day N normally costs no database reads at all.
+ */
+@Service
+public class UserContextSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserContextSnapshotService.class);
+
+    private static final int DIGEST_EXERCISES = 5;
+
+    private final UserCacheService userCacheService;
+    private final DailyRoutineRepository dailyRoutineRepository;
+    private final Cache<String, UserContextSnapshot> snapshots;
+
+    public UserContextSnapshotService(UserCacheService userCacheService,
+                                      DailyRoutineRepository dailyRoutineRepository,
+                                      @Value("${ai.context.cache.max-users:10000}") long maxUsers,
+                                      @Value("${ai.context.cache.expire-after-access-ms:3600000}") long expireAfterAccessMs) {
+        this.userCacheService = userCacheService;
+        this.dailyRoutineRepository = dailyRoutineRepository;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMillis(expireAfterAccessMs))
+                .build();
+    }
+
+    /**
+     * Get the user's snapshot, loading it from Mongo only on a cache miss
+     */
+    public UserContextSnapshot getSnapshot(String userId) {
+        return snapshots.get(userId, this::loadSnapshot);
+    }
+
+    /**
+     * Profile changed: refresh the profile part from the saved entity (no read)
+     */
+    public void onUserSaved(User user) {
+        snapshots.asMap().computeIfPresent(user.getId(), (id, current) -> {
+            UserContextSnapshot updated = new UserContextSnapshot(current);
+            applyProfile(updated, user);
+            return updated;
+        });
+    }
+
+    /**
+     * Routine saved: advance the latest day and replace the plan digest (no read)
+     */
+    public void onRoutineSaved(DailyRoutine routine) {
+        snapshots.asMap().computeIfPresent(routine.getUserId(), (id, current) -> {
+            if (routine.getDayNumber() < current.getLatestDayNumber()) {
+                return current; // an older day was updated (e.g. marked complete)
+            }
+            UserContextSnapshot updated = new UserContextSnapshot(current);
+            updated.setLatestDayNumber(routine.getDayNumber());
+            if (routine.getStructuredPlan() != null) {
+                updated.setLastPlanDigest(digest(routine.getStructuredPlan()));
+            }
+            return updated;
+        });
+    }
+
+    @EventListener
+    public void onUserDataReset(UserDataResetEvent event) {
+        snapshots.invalidate(event.getUserId());
+    }
+
+    private UserContextSnapshot loadSnapshot(String userId) {
+        logger.debug("Loading context snapshot for user: {}", userId);
+        User user = userCacheService.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        UserContextSnapshot snapshot = new UserContextSnapshot();
+        snapshot.setUserId(userId);
+        applyProfile(snapshot, user);
+
+        dailyRoutineRepository.findFirstByUserIdOrderByDayNumberDesc(userId).ifPresent(latest -> {
+            snapshot.setLatestDayNumber(latest.getDayNumber());
+            if (latest.getStructuredPlan() != null) {
+                snapshot.setLastPlanDigest(digest(latest.getStructuredPlan()));
+            }
+        });
+        return snapshot;
+    }
+
+    private void applyProfile(UserContextSnapshot snapshot, User user) {
+        snapshot.setFirstName(user.getFirstName());
+        snapshot.setResolvedGoal(resolveGoal(user));
+        snapshot.setExperienceLevel(user.getExperienceLevel());
+        snapshot.setAge(user.getAge());
+        snapshot.setGender(user.getGender());
+        snapshot.setCurrentWeight(user.getCurrentWeight());
+        snapshot.setTargetWeight(user.getTargetWeight());
+        snapshot.setHeight(user.getHeight());
+        snapshot.setDietaryPreference(user.getDietaryPreference() != null
+                ? user.getDietaryPreference()
+                : "No specific dietary restrictions");
+    }
+
+    /**
+     * Muscle gain with a target below the current weight is really a recomposition goal
+     */
+    private String resolveGoal(User user) {
+        String goal = user.getFitnessGoal();
+        if ("Muscle Gain".equalsIgnoreCase(goal)
+                && user.getTargetWeight() != null
+                && user.getCurrentWeight() != null) {
+            try {
+                if (Double.parseDouble(user.getTargetWeight()) < Double.parseDouble(user.getCurrentWeight())) {
+                    return "Body Recomposition (Fat Loss with Muscle Retention)";
+                }
+            } catch (NumberFormatException e) {
+                logger.warn("Non-numeric weight on user: {}", user.getId());
+            }
+        }
+        return goal;
+    }
+
+    /**
+     * One-paragraph digest of a generated plan, enough for the model to avoid repeating itself
+     */
+    private String digest(StructuredJourney journey) {
+        if (journey.getDays() == null || journey.getDays().isEmpty()) {
+            return null;
+        }
+        StructuredJourney.DayPlan day = journey.getDays().get(journey.getDays().size() - 1);
+        StringBuilder digest = new StringBuilder("Day ").append(day.getDay());
+        if (day.getWorkout() != null) {
+            digest.append(" workout: ").append(day.getWorkout().getTitle());
+            if (day.getWorkout().getExercises() != null && !day.getWorkout().getExercises().isEmpty()) {
+                digest.append(" (").append(day.getWorkout().getExercises().stream()
+                        .limit(DIGEST_EXERCISES)
+                        .collect(Collectors.joining("; "))).append(")");
+            }
+        }
+        if (day.getMeal() != null && day.getMeal().getTotalCalories() != null) {
+            digest.append(". Meals: ").append(day.getMeal().getTotalCalories());
+        }
+        return digest.toString();
+    }
+}
@@ -1,20 +1,37 @@
 package com.spring.ollama.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.ollama.dto.BulkWhatsAppResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.*;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.File;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class WhatsAppService {
@@ -33,11 +50,51 @@ public class WhatsAppService {
     @Value("${whatsapp.enabled:false}")
     private boolean whatsappEnabled;
 
-    private final RestTemplate restTemplate;
+    @Value("${whatsapp.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${whatsapp.retry.initial-backoff-ms:500}")
+    private long initialBackoffMs;
+
+    @Value("${whatsapp.retry.max-backoff-ms:10000}")
+    private long maxBackoffMs;
 
-    public WhatsAppService() {
-        this.restTemplate = new RestTemplate();
-        logger.info("WhatsAppService initialized");
+    private static final String FITNESS_PLAN_FOLLOW_UP =
+            "💪 Good luck on your fitness journey! Stay consistent and track your progress.";
+
+    private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+    private final SimpleCircuitBreaker circuitBreaker;
+    private final TokenBucketRateLimiter messageRateLimiter;
+    private final ThreadPoolTaskExecutor bulkExecutor;
+    private final ObservationRegistry observationRegistry;
+    // Running jobs are never evicted; a job moves to the expiring cache once every recipient has a result
+    private final Map<String, BulkWhatsAppResult> runningBulkJobs = new ConcurrentHashMap<>();
+    private final Cache<String, BulkWhatsAppResult> completedBulkJobs;
+
+    @Value("${whatsapp.bulk.max-recipients:1000}")
+    private int maxBulkRecipients;
+
+    public WhatsAppService(@Qualifier("whatsAppRestTemplate") RestTemplate restTemplate,
+                           @Qualifier("whatsAppBulkExecutor") ThreadPoolTaskExecutor bulkExecutor,
+                           MeterRegistry meterRegistry,
+                           ObservationRegistry observationRegistry,
+                           @Value("${whatsapp.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                           @Value("${whatsapp.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+                           @Value("${whatsapp.rate-limit.messages-per-second:80}") double messagesPerSecond,
+                           @Value("${whatsapp.rate-limit.burst:80}") int burst,
+                           @Value("${whatsapp.bulk.job-retention-ms:3600000}") long jobRetentionMs) {
+        this.restTemplate = restTemplate;
+        this.bulkExecutor = bulkExecutor;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.circuitBreaker = new SimpleCircuitBreaker("whatsapp", failureThreshold, openDurationMs);
+        this.messageRateLimiter = new TokenBucketRateLimiter(burst, messagesPerSecond);
+        this.completedBulkJobs = Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(Duration.ofMillis(jobRetentionMs))
+                .build();
+        logger.info("WhatsAppService initialized - rate limit: {} msg/s, burst: {}", messagesPerSecond, burst);
     }
 
     /**
@@ -70,8 +127,6 @@ public class WhatsAppService {
         logger.info("Sending WhatsApp text message to: {}", recipientPhone);
 
         try {
-            String url = String.format("%s/%s/messages", whatsappApiUrl, phoneNumberId);
-
             // Prepare request body
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("messaging_product", "whatsapp");
@@ -91,12 +146,7 @@ public class WhatsAppService {
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
 
             // Send request
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
+            ResponseEntity<String> response = postToGraphApi("messages", entity, String.class);
 
             if (response.getStatusCode() == HttpStatus.OK) {
                 logger.info("WhatsApp text message sent successfully to: {}", recipientPhone);
@@ -124,17 +174,22 @@ public class WhatsAppService {
 
         logger.info("Sending WhatsApp document to: {}", recipientPhone);
 
-        try {
-            // Step 1: Upload the media file
-            String mediaId = uploadMedia(pdfFilePath);
-            if (mediaId == null) {
-                logger.error("Failed to upload media file");
-                return false;
-            }
+        // Step 1: Upload the media file
+        String mediaId = uploadMedia(pdfFilePath);
+        if (mediaId == null) {
+            logger.error("Failed to upload media file");
+            return false;
+        }
 
-            // Step 2: Send the document message
-            String url = String.format("%s/%s/messages", whatsappApiUrl, phoneNumberId);
+        // Step 2: Send the document message
+        return sendUploadedDocument(recipientPhone, mediaId, new File(pdfFilePath).getName(), caption);
+    }
 
+    /**
+     * Send a document message for media that has already been uploaded
+     */
+    private boolean sendUploadedDocument(String recipientPhone, String mediaId, String fileName, String caption) {
+        try {
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("messaging_product", "whatsapp");
             requestBody.put("recipient_type", "individual");
@@ -146,7 +201,7 @@ public class WhatsAppService {
             if (caption != null && !caption.isEmpty()) {
                 document.put("caption", caption);
             }
-            document.put("filename", new File(pdfFilePath).getName());
+            document.put("filename", fileName);
             requestBody.put("document", document);
 
             HttpHeaders headers = new HttpHeaders();
@@ -155,12 +210,7 @@ public class WhatsAppService {
 
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
+            ResponseEntity<String> response = postToGraphApi("messages", entity, String.class);
 
             if (response.getStatusCode() == HttpStatus.OK) {
                 logger.info("WhatsApp document sent successfully to: {}", recipientPhone);
@@ -190,8 +240,6 @@ public class WhatsAppService {
                 return null;
             }
 
-            String url = String.format("%s/%s/media", whatsappApiUrl, phoneNumberId);
-
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.MULTIPART_FORM_DATA);
             headers.setBearerAuth(accessToken);
@@ -203,12 +251,7 @@ public class WhatsAppService {
 
             HttpEntity<MultiValueMap<String, Object>> entity = new HttpEntity<>(body, headers);
 
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    Map.class
-            );
+            ResponseEntity<Map> response = postToGraphApi("media", entity, Map.class);
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 String mediaId = (String) response.getBody().get("id");
@@ -229,20 +272,16 @@ public class WhatsAppService {
      * Send fitness plan notification via WhatsApp
      */
     public boolean sendFitnessPlanNotification(String recipientPhone, String reportName, String pdfPath) {
+        return deliveryObservation("fitness_plan")
+                .observe(() -> doSendFitnessPlanNotification(recipientPhone, reportName, pdfPath));
+    }
+
+    private boolean doSendFitnessPlanNotification(String recipientPhone, String reportName, String pdfPath) {
         logger.info("Sending fitness plan notification via WhatsApp to: {}", recipientPhone);
 
         try {
             // Send initial text message
-            String message = String.format(
-                    "🏋️ *Your Fitness Plan is Ready!*%n%n" +
-                            "Report: *%s*%n%n" +
-                            "Your personalized fitness plan has been generated and includes:%n" +
-                            "✅ Workout schedule%n" +
-                            "✅ Meal plan%n" +
-                            "✅ Supplement recommendations%n%n" +
-                            "Sending your PDF now... 📄",
-                    reportName
-            );
+            String message = buildFitnessPlanMessage(reportName);
 
             boolean textSent = sendTextMessage(recipientPhone, message);
             if (!textSent) {
@@ -255,8 +294,7 @@ public class WhatsAppService {
 
             if (docSent) {
                 // Send follow-up message
-                String followUp = "💪 Good luck on your fitness journey! Stay consistent and track your progress.";
-                sendTextMessage(recipientPhone, followUp);
+                sendTextMessage(recipientPhone, FITNESS_PLAN_FOLLOW_UP);
                 return true;
             }
 
@@ -268,10 +306,135 @@ public class WhatsAppService {
         }
     }
 
+    /**
+     * Start sending the fitness plan notification to many recipients and return the job right away.
+     * The PDF is uploaded once on a worker and the media id is reused; recipients are processed
+     * concurrently, paced by the shared message rate limiter. Poll getBulkJob for progress.
+     */
+    public BulkWhatsAppResult startBulkFitnessPlanNotification(List<String> recipientPhones,
+                                                               String reportName, String pdfPath) {
+        BulkWhatsAppResult job = new BulkWhatsAppResult();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setTotalRecipients(recipientPhones.size());
+        runningBulkJobs.put(job.getJobId(), job);
+
+        logger.info("Starting bulk WhatsApp job {} for {} recipients", job.getJobId(), recipientPhones.size());
+        long startTime = System.currentTimeMillis();
+
+        if (!isWhatsAppEnabled()) {
+            recipientPhones.forEach(phone -> recordRecipient(job, startTime, new BulkWhatsAppResult.RecipientResult(
+                    phone, false, false, "WhatsApp is not enabled or configured")));
+            return getBulkJob(job.getJobId());
+        }
+
+        try {
+            bulkExecutor.execute(() -> dispatchBulkSend(job, startTime, recipientPhones, reportName, pdfPath));
+        } catch (TaskRejectedException e) {
+            logger.warn("Bulk WhatsApp queue full, rejecting job {}", job.getJobId());
+            recipientPhones.forEach(phone -> recordRecipient(job, startTime, new BulkWhatsAppResult.RecipientResult(
+                    phone, false, false, "Bulk send queue is full")));
+        }
+        return getBulkJob(job.getJobId());
+    }
+
+    /**
+     * Snapshot of a bulk job, or null when the id is unknown or the job has expired
+     */
+    public BulkWhatsAppResult getBulkJob(String jobId) {
+        BulkWhatsAppResult job = runningBulkJobs.get(jobId);
+        if (job == null) {
+            job = completedBulkJobs.getIfPresent(jobId);
+        }
+        if (job == null) {
+            return null;
+        }
+        synchronized (job) {
+            return new BulkWhatsAppResult(job);
+        }
+    }
+
+    public int getMaxBulkRecipients() {
+        return maxBulkRecipients;
+    }
+
+    /**
+     * Runs on a bulk worker: upload once, then queue one task per recipient without waiting on them
+     */
+    private void dispatchBulkSend(BulkWhatsAppResult job, long startTime, List<String> recipientPhones,
+                                  String reportName, String pdfPath) {
+        String mediaId = uploadMedia(pdfPath);
+        String fileName = new File(pdfPath).getName();
+        String message = buildFitnessPlanMessage(reportName);
+        String caption = String.format("📊 %s - Fitness Plan Report", reportName);
+
+        for (String phone : recipientPhones) {
+            try {
+                CompletableFuture.supplyAsync(() -> {
+                    boolean textSent = sendTextMessage(phone, message);
+                    if (mediaId == null) {
+                        return new BulkWhatsAppResult.RecipientResult(phone, textSent, false, "PDF upload failed");
+                    }
+
+                    boolean docSent = sendUploadedDocument(phone, mediaId, fileName, caption);
+                    if (docSent) {
+                        sendTextMessage(phone, FITNESS_PLAN_FOLLOW_UP);
+                    }
+                    return new BulkWhatsAppResult.RecipientResult(phone, textSent, docSent,
+                            docSent ? null : "Document message was not delivered");
+                }, bulkExecutor).whenComplete((recipientResult, error) -> recordRecipient(job, startTime,
+                        error == null ? recipientResult
+                                : new BulkWhatsAppResult.RecipientResult(phone, false, false, error.getMessage())));
+
+            } catch (TaskRejectedException e) {
+                recordRecipient(job, startTime,
+                        new BulkWhatsAppResult.RecipientResult(phone, false, false, "Bulk send queue is full"));
+            }
+        }
+    }
+
+    private void recordRecipient(BulkWhatsAppResult job, long startTime,
+                                 BulkWhatsAppResult.RecipientResult recipientResult) {
+        synchronized (job) {
+            job.getResults().add(recipientResult);
+            if (recipientResult.isSuccess()) {
+                job.setSuccessCount(job.getSuccessCount() + 1);
+            } else {
+                job.setFailureCount(job.getFailureCount() + 1);
+            }
+            job.setDurationMs(System.currentTimeMillis() - startTime);
+
+            if (job.getResults().size() == job.getTotalRecipients()) {
+                job.setStatus(BulkWhatsAppResult.STATUS_COMPLETED);
+                completedBulkJobs.put(job.getJobId(), job); // before removal, so lookups always find it
+                runningBulkJobs.remove(job.getJobId());
+                logger.info("Bulk WhatsApp job {} finished in {} ms - success: {}, failed: {}",
+                        job.getJobId(), job.getDurationMs(), job.getSuccessCount(), job.getFailureCount());
+            }
+        }
+    }
+
+    private String buildFitnessPlanMessage(String reportName) {
+        return String.format(
+                "🏋️ *Your Fitness Plan is Ready!*%n%n" +
+                        "Report: *%s*%n%n" +
+                        "Your personalized fitness plan has been generated and includes:%n" +
+                        "✅ Workout schedule%n" +
+                        "✅ Meal plan%n" +
+                        "✅ Supplement recommendations%n%n" +
+                        "Sending your PDF now... 📄",
+                reportName
+        );
+    }
+
     /**
      * Send scheduled report notification via WhatsApp
      */
     public boolean sendScheduledReportNotification(String recipientPhone, String reportName, String pdfPath) {
+        return deliveryObservation("scheduled_report")
+                .observe(() -> doSendScheduledReportNotification(recipientPhone, reportName, pdfPath));
+    }
+
+    private boolean doSendScheduledReportNotification(String recipientPhone, String reportName, String pdfPath) {
         logger.info("Sending scheduled report notification via WhatsApp to: {}", recipientPhone);
 
         String message = String.format(
@@ -288,6 +451,110 @@ public class WhatsAppService {
         return sendDocument(recipientPhone, pdfPath, caption);
     }
 
+    /**
+     * POST to a Graph API endpoint ("messages" or "media").
+     * Throttling (429) and server errors are retried with exponential backoff (honouring Retry-After),
+     * message sends are paced by the rate limiter.
+     */
+    private <T> ResponseEntity<T> postToGraphApi(String endpoint, HttpEntity<?> entity, Class<T> responseType) {
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            try {
+                if ("messages".equals(endpoint)) {
+                    messageRateLimiter.acquire();
+                }
+                return executeGraphApiCall(endpoint, entity, responseType);
+
+            } catch (HttpStatusCodeException e) {
+                int status = e.getStatusCode().value();
+                boolean retryable = status == 429 || e.getStatusCode().is5xxServerError();
+                if (!retryable || attempt >= maxAttempts) {
+                    throw e;
+                }
+
+                long backoffMs = computeBackoffMs(e, attempt);
+                logger.warn("WhatsApp API returned {} for {} (attempt {}/{}), retrying in {} ms",
+                        status, endpoint, attempt, maxAttempts, backoffMs);
+                sleepQuietly(backoffMs);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for WhatsApp rate limiter", e);
+            }
+        }
+    }
+
+    /**
+     * Single Graph API call through the circuit breaker, recording per-endpoint latency
+     */
+    private <T> ResponseEntity<T> executeGraphApiCall(String endpoint, HttpEntity<?> entity, Class<T> responseType) {
+        if (!circuitBreaker.allowRequest()) {
+            throw new IllegalStateException("WhatsApp API circuit breaker is open, skipping call to " + endpoint);
+        }
+
+        String url = String.format("%s/%s/%s", whatsappApiUrl, phoneNumberId, endpoint);
+        String outcome = "IO_ERROR";
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        try {
+            ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.POST, entity, responseType);
+            outcome = String.valueOf(response.getStatusCode().value());
+            circuitBreaker.recordSuccess();
+            return response;
+
+        } catch (HttpStatusCodeException e) {
+            outcome = String.valueOf(e.getStatusCode().value());
+            // Only throttling and server errors count against the breaker, a bad request is our fault
+            if (e.getStatusCode().is5xxServerError() || e.getStatusCode().value() == 429) {
+                circuitBreaker.recordFailure();
+            } else {
+                circuitBreaker.recordSuccess();
+            }
+            throw e;
+
+        } catch (RuntimeException e) {
+            circuitBreaker.recordFailure();
+            throw e;
+
+        } finally {
+            sample.stop(Timer.builder("whatsapp.api.requests")
+                    .description("Latency of WhatsApp Graph API calls")
+                    .tag("endpoint", endpoint)
+                    .tag("status", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter, or the server's Retry-After when given
+     */
+    private long computeBackoffMs(HttpStatusCodeException e, int attempt) {
+        HttpHeaders responseHeaders = e.getResponseHeaders();
+        String retryAfter = responseHeaders != null ? responseHeaders.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (retryAfter != null) {
+            try {
+                return Math.min(maxBackoffMs, Long.parseLong(retryAfter.trim()) * 1000);
+            } catch (NumberFormatException ignored) {
+                // HTTP-date form, fall back to exponential backoff
+            }
+        }
+
+        long exponential = initialBackoffMs * (1L << Math.min(attempt - 1, 16));
+        long jitter = ThreadLocalRandom.current().nextLong(initialBackoffMs + 1);
+        return Math.min(maxBackoffMs, exponential + jitter);
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during WhatsApp retry backoff", e);
+        }
+    }
+
     /**
      * Format phone number for WhatsApp API (remove spaces, dashes, etc.)
      * Expected format: Country code + phone number (e.g., 919876543210)
@@ -321,8 +588,6 @@ public class WhatsAppService {
         logger.info("Sending WhatsApp template message to: {}", recipientPhone);
 
         try {
-            String url = String.format("%s/%s/messages", whatsappApiUrl, phoneNumberId);
-
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("messaging_product", "whatsapp");
             requestBody.put("to", formatPhoneNumber(recipientPhone));
@@ -346,12 +611,7 @@ public class WhatsAppService {
 
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
+            ResponseEntity<String> response = postToGraphApi("messages", entity, String.class);
 
             return response.getStatusCode() == HttpStatus.OK;
 
@@ -360,4 +620,10 @@ public class WhatsAppService {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    private Observation deliveryObservation(String kind) {
+        return Observation.createNotStarted("fitness.delivery", observationRegistry)
+                .lowCardinalityKeyValue("channel", "whatsapp")
+                .lowCardinalityKeyValue("kind", kind);
+    }
+}
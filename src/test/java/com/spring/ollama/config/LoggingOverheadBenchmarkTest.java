@@ -0,0 +1,145 @@
+package com.spring.ollama.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Request-thread time spent logging one LLM call, before and after the logging changes:
+ * the old setup (DEBUG, full payloads, synchronous file appender) against the prod profile
+ * (INFO, previewed payloads, JSON through a non-blocking async appender). Each setup gets its
+ * own LoggerContext writing to a temp file, so the numbers do not depend on the console.
+ */
+class LoggingOverheadBenchmarkTest {
+
+    private static final org.slf4j.Logger logger = LoggerFactory.getLogger(LoggingOverheadBenchmarkTest.class);
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+
+    private static final String QUESTION = "Create a COMPLETE and COMPREHENSIVE fitness plan for me. ".repeat(40);
+    private static final String RESPONSE = "Day 1: Squats 4x8, Bench press 4x8, Rows 3x10, Plank 3x60s. ".repeat(140);
+
+    @TempDir
+    Path tempDir;
+
+    private LoggerContext context;
+
+    @AfterEach
+    void stopContext() {
+        if (context != null) {
+            context.stop();
+        }
+        LogPayloads.configure(200, 0.01);
+    }
+
+    @Test
+    void prodLoggingCostsTheRequestThreadLessThanFullSynchronousPayloads() {
+        context = new LoggerContext();
+        Logger before = synchronousDebugLogger(context, tempDir.resolve("before.log"));
+        double beforeMicros = microsPerCall(() -> {
+            before.info("Received fitness question: {}", QUESTION);
+            before.debug("Response: {}", RESPONSE);
+        });
+        context.stop();
+
+        LogPayloads.configure(120, 0.001);
+        context = new LoggerContext();
+        Logger after = asyncJsonInfoLogger(context, tempDir.resolve("after.json"));
+        double afterMicros = microsPerCall(() -> {
+            after.info("Received fitness question: {}", LogPayloads.preview(QUESTION));
+            after.debug("Response: {}", LogPayloads.preview(RESPONSE));
+        });
+
+        logger.info("Request-thread logging per LLM call - before: {} us, after: {} us ({}x)",
+                String.format("%.2f", beforeMicros), String.format("%.2f", afterMicros),
+                String.format("%.1f", beforeMicros / afterMicros));
+        assertThat(afterMicros).isLessThan(beforeMicros);
+    }
+
+    @Test
+    void previewTruncatesToOneLineWithTheOriginalLength() {
+        LogPayloads.configure(10, 0);
+
+        assertThat(LogPayloads.preview("line one\nline two").toString()).isEqualTo("line one l... (17 chars)");
+        assertThat(LogPayloads.preview("short").toString()).isEqualTo("short");
+        assertThat(LogPayloads.preview(null).toString()).isEqualTo("null");
+        assertThat(LogPayloads.sampled()).isFalse();
+    }
+
+    private static double microsPerCall(Runnable loggedRequest) {
+        for (int i = 0; i < WARMUP; i++) {
+            loggedRequest.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            loggedRequest.run();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+
+    /**
+     * What application.properties used to do: DEBUG for the app, pattern layout, synchronous file I/O
+     */
+    private static Logger synchronousDebugLogger(LoggerContext context, Path file) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5p [%t] %logger{39} : %m%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(file.toString());
+        appender.setEncoder(encoder);
+        appender.start();
+
+        return attach(context, Level.DEBUG, appender);
+    }
+
+    /**
+     * The prod profile in logback-spring.xml: INFO, logstash JSON, async appender that never blocks
+     */
+    private static Logger asyncJsonInfoLogger(LoggerContext context, Path file) {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(fileAppender);
+        async.start();
+
+        return attach(context, Level.INFO, async);
+    }
+
+    private static Logger attach(LoggerContext context, Level level, Appender<ILoggingEvent> appender) {
+        Logger serviceLogger = context.getLogger("com.spring.ollama.service.FitnessAiService");
+        serviceLogger.setLevel(level);
+        serviceLogger.setAdditive(false);
+        serviceLogger.addAppender(appender);
+        return serviceLogger;
+    }
+}
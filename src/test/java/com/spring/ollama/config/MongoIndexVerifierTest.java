@@ -0,0 +1,92 @@
+package com.spring.ollama.config;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Index coverage for every repository query shape. The explain assertions need a MongoDB to plan
+ * against: set -Dmongo.test.uri (or MONGO_TEST_URI), otherwise they are skipped. A throwaway
+ * database is created, indexed from the entity annotations and dropped afterwards.
+ */
+class MongoIndexVerifierTest {
+
+    private static final String DATABASE = "fitness_ai_index_test";
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void connect() {
+        String uri = System.getProperty("mongo.test.uri", System.getenv("MONGO_TEST_URI"));
+        if (uri != null && !uri.isBlank()) {
+            client = MongoClients.create(uri);
+            mongoTemplate = new MongoTemplate(client, DATABASE);
+            mongoTemplate.getDb().drop();
+        }
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (client != null) {
+            mongoTemplate.getDb().drop();
+            client.close();
+        }
+    }
+
+    @Test
+    void everyRepositoryQueryShapeIsIndexCovered() {
+        assumeTrue(mongoTemplate != null, "mongo.test.uri not set");
+
+        MongoIndexVerifier verifier = new MongoIndexVerifier(mongoTemplate);
+        ReflectionTestUtils.setField(verifier, "createMissing", true);
+        verifier.verifyDeclaredIndexes();
+
+        assertThat(verifier.verifyDeclaredIndexes()).as("indexes still missing after creation").isZero();
+        assertThat(verifier.findUnindexedQueryShapes()).isEmpty();
+    }
+
+    @Test
+    void collectsStagesFromClassicPlan() {
+        Document explain = Document.parse("""
+                {"queryPlanner": {"winningPlan": {
+                    "stage": "FETCH",
+                    "inputStage": {"stage": "IXSCAN", "indexName": "user_day_idx"}}}}
+                """);
+
+        assertThat(MongoIndexVerifier.winningPlanStages(explain)).containsExactlyInAnyOrder("FETCH", "IXSCAN");
+    }
+
+    @Test
+    void collectsStagesFromSbePlanAndFlagsInMemorySort() {
+        Document explain = Document.parse("""
+                {"queryPlanner": {"winningPlan": {
+                    "queryPlan": {"stage": "SORT",
+                        "inputStage": {"stage": "OR", "inputStages": [
+                            {"stage": "COLLSCAN"},
+                            {"stage": "IXSCAN", "indexName": "email_1"}]}},
+                    "slotBasedPlan": {"stages": "[1] sort ..."}}}}
+                """);
+
+        assertThat(MongoIndexVerifier.winningPlanStages(explain))
+                .contains("SORT", "COLLSCAN", "IXSCAN")
+                .doesNotContain("[1] sort ...");
+    }
+
+    @Test
+    void missingPlannerSectionYieldsNoStages() {
+        assertThat(MongoIndexVerifier.winningPlanStages(new Document("ok", 1))).isEmpty();
+        assertThat(MongoIndexVerifier.winningPlanStages(new Document("queryPlanner", new Document())))
+                .isEqualTo(Set.of());
+    }
+}
@@ -0,0 +1,196 @@
+package com.spring.ollama.config;
+
+import com.spring.ollama.support.StubHttpServer;
+import com.spring.ollama.support.StubHttpServer.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * RoutingChatModel over real OllamaChatModels pointed at local stub Ollama servers
+ */
+class RoutingChatModelTest {
+
+    private final List<StubHttpServer> servers = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(StubHttpServer::close);
+    }
+
+    @Test
+    void spreadsSequentialCallsEvenlyOverIdleBackends() throws Exception {
+        StubHttpServer a = ollama("A");
+        StubHttpServer b = ollama("B");
+        RoutingChatModel router = router(3, 30_000, a.baseUrl(), b.baseUrl());
+
+        for (int i = 0; i < 10; i++) {
+            router.call(new Prompt("hello"));
+        }
+
+        assertThat(a.requests("/api/chat")).hasSize(5);
+        assertThat(b.requests("/api/chat")).hasSize(5);
+    }
+
+    @Test
+    void sendsNewCallsToTheBackendWithFewerOutstandingRequests() throws Exception {
+        StubHttpServer slow = ollama("slow");
+        StubHttpServer fast = ollama("fast");
+        slow.respondWith(request -> chatResponse("slow").withDelay(1_000));
+        RoutingChatModel router = router(3, 30_000, slow.baseUrl(), fast.baseUrl());
+
+        // the first scan starts at the slow backend; while that call is outstanding everything else should avoid it
+        CompletableFuture<String> pinned = CompletableFuture.supplyAsync(() -> text(router.call(new Prompt("hello"))));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (slow.requests("/api/chat").isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        for (int i = 0; i < 4; i++) {
+            assertThat(text(router.call(new Prompt("hello")))).isEqualTo("from fast");
+        }
+
+        assertThat(fast.requests("/api/chat")).hasSize(4);
+        assertThat(slow.requests("/api/chat")).hasSize(1);
+        assertThat(pinned.get(5, TimeUnit.SECONDS)).isEqualTo("from slow");
+    }
+
+    @Test
+    void failsOverOnServerErrorsAndEjectsTheFailingBackend() throws Exception {
+        StubHttpServer broken = ollama("broken");
+        StubHttpServer healthy = ollama("healthy");
+        broken.respondWith(request -> Response.status(500));
+        RoutingChatModel router = router(2, 30_000, broken.baseUrl(), healthy.baseUrl());
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(text(router.call(new Prompt("hello")))).isEqualTo("from healthy");
+        }
+
+        assertThat(broken.requests("/api/chat")).hasSize(2);
+        assertThat(healthy.requests("/api/chat")).hasSize(8);
+        assertThat(backend(router, broken.baseUrl()).isEjected()).isTrue();
+        assertThat(backend(router, broken.baseUrl()).isAvailable()).isFalse();
+
+        Counter ejections = meterRegistry.find("llm.backend.ejections").tag("backend", broken.baseUrl()).counter();
+        assertThat(ejections).isNotNull();
+        assertThat(ejections.count()).isEqualTo(1);
+    }
+
+    @Test
+    void failsOverWhenABackendRefusesConnections() throws Exception {
+        StubHttpServer down = ollama("down");
+        StubHttpServer up = ollama("up");
+        String downUrl = down.baseUrl();
+        down.close();
+        RoutingChatModel router = router(1, 30_000, downUrl, up.baseUrl());
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(text(router.call(new Prompt("hello")))).isEqualTo("from up");
+        }
+        assertThat(backend(router, downUrl).isEjected()).isTrue();
+    }
+
+    @Test
+    void healthChecksEjectAndReinstateBackends() throws Exception {
+        StubHttpServer flaky = ollama("flaky");
+        StubHttpServer steady = ollama("steady");
+        flaky.respondWith(request -> request.path().equals("/api/tags") ? Response.status(503) : chatResponse("flaky"));
+        RoutingChatModel router = router(3, 200, flaky.baseUrl(), steady.baseUrl());
+
+        router.checkHealth();
+        assertThat(backend(router, flaky.baseUrl()).isEjected()).isTrue();
+        assertThat(backend(router, steady.baseUrl()).isEjected()).isFalse();
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(text(router.call(new Prompt("hello")))).isEqualTo("from steady");
+        }
+
+        // recovered, but still inside the ejection period: stays out
+        flaky.respondWith(request -> request.path().equals("/api/tags") ? Response.json("{\"models\":[]}")
+                : chatResponse("flaky"));
+        router.checkHealth();
+        assertThat(backend(router, flaky.baseUrl()).isEjected()).isTrue();
+
+        Thread.sleep(250);
+        router.checkHealth();
+        assertThat(backend(router, flaky.baseUrl()).isAvailable()).isTrue();
+
+        router.call(new Prompt("hello"));
+        router.call(new Prompt("hello"));
+        assertThat(flaky.requests("/api/chat")).hasSize(1);
+    }
+
+    @Test
+    void clientErrorsAreNotRetriedOnAnotherBackend() throws Exception {
+        StubHttpServer a = ollama("A");
+        StubHttpServer b = ollama("B");
+        a.respondWith(request -> Response.status(400));
+        b.respondWith(request -> Response.status(400));
+        RoutingChatModel router = router(1, 30_000, a.baseUrl(), b.baseUrl());
+
+        assertThatThrownBy(() -> router.call(new Prompt("hello"))).isInstanceOf(RuntimeException.class);
+
+        assertThat(a.requests("/api/chat").size() + b.requests("/api/chat").size()).isEqualTo(1);
+        assertThat(backend(router, a.baseUrl()).isEjected()).isFalse();
+        assertThat(backend(router, b.baseUrl()).isEjected()).isFalse();
+    }
+
+    private StubHttpServer ollama(String name) throws Exception {
+        StubHttpServer server = new StubHttpServer();
+        server.respondWith(request -> request.path().equals("/api/tags") ? Response.json("{\"models\":[]}")
+                : chatResponse(name));
+        servers.add(server);
+        return server;
+    }
+
+    private static Response chatResponse(String name) {
+        return Response.json("""
+                {"model":"llama3.2","created_at":"2024-01-01T00:00:00Z",
+                 "message":{"role":"assistant","content":"from %s"},
+                 "done":true,"done_reason":"stop","total_duration":1000,"load_duration":0,
+                 "prompt_eval_count":1,"prompt_eval_duration":1,"eval_count":2,"eval_duration":1}
+                """.formatted(name));
+    }
+
+    private RoutingChatModel router(int failureThreshold, long ejectionMs, String... baseUrls) {
+        List<RoutingChatModel.Backend> backends = new ArrayList<>();
+        for (String baseUrl : baseUrls) {
+            OllamaChatModel chatModel = OllamaChatModel.builder()
+                    .ollamaApi(OllamaApi.builder().baseUrl(baseUrl).restClientBuilder(RestClient.builder()).build())
+                    .retryTemplate(RetryTemplate.builder().maxAttempts(1).build())
+                    .build();
+            RoutingChatModel.Backend backend = new RoutingChatModel.Backend(baseUrl, chatModel,
+                    RestClient.builder(), Duration.ofSeconds(1), Duration.ofSeconds(10));
+            backend.markWarm(0L);
+            backends.add(backend);
+        }
+        return new RoutingChatModel(backends, failureThreshold, ejectionMs, 2, meterRegistry);
+    }
+
+    private static RoutingChatModel.Backend backend(RoutingChatModel router, String baseUrl) {
+        return router.getBackends().stream()
+                .filter(backend -> backend.getName().equals(baseUrl))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static String text(ChatResponse response) {
+        return response.getResult().getOutput().getText();
+    }
+}
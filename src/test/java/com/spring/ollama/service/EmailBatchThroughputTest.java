@@ -0,0 +1,134 @@
+package com.spring.ollama.service;
+
+import com.spring.ollama.config.MailConfig;
+import com.spring.ollama.dto.EmailBatchResult;
+import com.spring.ollama.dto.EmailMessageRequest;
+import com.spring.ollama.support.StubSmtpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batched sending against a local SMTP stub: connection reuse, queue draining, and messages/second
+ * of one session per message versus the batch path
+ */
+class EmailBatchThroughputTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailBatchThroughputTest.class);
+
+    // Stands in for TLS + AUTH on a real SMTP server; on localhost session setup is otherwise free
+    private static final long SESSION_SETUP_MS = 20;
+
+    private StubSmtpServer smtp;
+    private ThreadPoolTaskExecutor mailBatchExecutor;
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp = new StubSmtpServer(SESSION_SETUP_MS);
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtp.port());
+
+        MailConfig mailConfig = new MailConfig();
+        ReflectionTestUtils.setField(mailConfig, "maxConnections", 2);
+        mailBatchExecutor = mailConfig.mailBatchExecutor();
+
+        EmailTemplateService templates = mock(EmailTemplateService.class);
+        when(templates.renderScheduledReportEmail(anyString())).thenReturn("<p>Your report is ready</p>");
+
+        emailService = new EmailService(mailSender, templates, mailBatchExecutor,
+                new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "reports@fitness.test");
+        ReflectionTestUtils.setField(emailService, "batchSize", 50);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mailBatchExecutor.shutdown();
+        smtp.close();
+    }
+
+    @Test
+    void batchReusesOneConnectionPerChunk() {
+        EmailBatchResult result = emailService.sendEmailsBatch(emails(200));
+
+        assertThat(result.getSent()).isEqualTo(200);
+        assertThat(result.getFailed()).isZero();
+        assertThat(smtp.messages()).hasSize(200);
+        assertThat(smtp.connectionCount()).isEqualTo(4);
+    }
+
+    @Test
+    void batchOutperformsOneSessionPerMessage() {
+        int count = 100;
+        List<EmailMessageRequest> emails = emails(count);
+
+        long start = System.nanoTime();
+        emails.forEach(email -> emailService.sendEmailWithAttachment(
+                email.getToEmail(), email.getSubject(), email.getBody(), null));
+        double perMessageRate = count * 1e9 / (System.nanoTime() - start);
+        int perMessageConnections = smtp.connectionCount();
+
+        EmailBatchResult batch = emailService.sendEmailsBatch(emails);
+        int batchConnections = smtp.connectionCount() - perMessageConnections;
+
+        logger.info("SMTP throughput - one session per message: {} msg/s over {} connections, "
+                        + "batched: {} msg/s over {} connections",
+                String.format("%.1f", perMessageRate), perMessageConnections,
+                String.format("%.1f", batch.getMessagesPerSecond()), batchConnections);
+
+        assertThat(perMessageConnections).isEqualTo(count);
+        assertThat(batchConnections).isEqualTo(2);
+        assertThat(batch.getSent()).isEqualTo(count);
+        assertThat(batch.getMessagesPerSecond()).isGreaterThan(perMessageRate * 2);
+    }
+
+    @Test
+    void queuedReportEmailsShareABatchAndDrainOnShutdown() throws Exception {
+        List<CompletableFuture<Boolean>> delivered = IntStream.range(0, 3)
+                .mapToObj(i -> emailService.queueScheduledReportNotification(
+                        "schedule-" + i, "user" + i + "@fitness.test", "Weekly report", null))
+                .toList();
+        assertThat(smtp.messages()).isEmpty();
+
+        emailService.drainScheduledReportEmails();
+
+        for (CompletableFuture<Boolean> future : delivered) {
+            assertThat(future.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(smtp.messages()).hasSize(3);
+        assertThat(smtp.connectionCount()).isEqualTo(1);
+
+        // after shutdown started nothing flushes any more, so a late email is sent straight away
+        CompletableFuture<Boolean> late = emailService.queueScheduledReportNotification(
+                "schedule-late", "late@fitness.test", "Weekly report", null);
+        assertThat(late.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(smtp.messages()).hasSize(4);
+    }
+
+    private List<EmailMessageRequest> emails(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new EmailMessageRequest("user" + i + "@fitness.test",
+                        "Report " + i, "<p>Report body " + i + "</p>", null))
+                .toList();
+    }
+}
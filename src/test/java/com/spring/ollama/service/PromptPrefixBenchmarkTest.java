@@ -0,0 +1,171 @@
+package com.spring.ollama.service;
+
+import com.spring.ollama.config.FitnessChatClientConfig;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prompt layout for Ollama's prefix (KV cache) reuse. The layout assertions always run; the
+ * prefill benchmark needs a local Ollama - set -Dollama.benchmark.url (and optionally
+ * -Dollama.benchmark.model) - and is skipped otherwise.
+ */
+class PromptPrefixBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptPrefixBenchmarkTest.class);
+
+    private static final List<String[]> USERS = List.of(
+            new String[]{"muscle gain", "beginner", "4", "2800", "balanced", "24", "male", "68kg", "75kg", "178cm"},
+            new String[]{"fat loss", "intermediate", "5", "1800", "vegetarian", "35", "female", "72kg", "62kg", "165cm"},
+            new String[]{"endurance", "advanced", "6", "3000", "keto", "41", "male", "80kg", "78kg", "183cm"},
+            new String[]{"strength", "intermediate", "3", "2500", "paleo", "29", "female", "60kg", "63kg", "170cm"});
+
+    @Test
+    void completePlanPromptsForDifferentUsersShareTheWholeInstructionBlock() {
+        String instructions = (String) ReflectionTestUtils.getField(FitnessAiService.class, "COMPLETE_PLAN_INSTRUCTIONS");
+        List<String> prompts = USERS.stream().map(PromptPrefixBenchmarkTest::currentPrompt).toList();
+
+        for (String prompt : prompts) {
+            assertThat(prompt).startsWith(instructions);
+        }
+        for (int i = 1; i < prompts.size(); i++) {
+            assertThat(commonPrefixLength(prompts.get(i - 1), prompts.get(i))).isGreaterThanOrEqualTo(instructions.length());
+            assertThat(prompts.get(i).indexOf(USERS.get(i)[0])).isGreaterThan(instructions.length());
+        }
+
+        // the old layout diverged on the first user field
+        assertThat(commonPrefixLength(legacyPrompt(USERS.get(0)), legacyPrompt(USERS.get(1))))
+                .isLessThan(instructions.length() / 4);
+    }
+
+    @Test
+    void stablePrefixCutsPrefillOnALocalOllama() {
+        String url = System.getProperty("ollama.benchmark.url");
+        assumeTrue(url != null && !url.isBlank(), "ollama.benchmark.url not set");
+        String model = System.getProperty("ollama.benchmark.model", "llama3.2");
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newHttpClient());
+        requestFactory.setReadTimeout(Duration.ofMinutes(5));
+        RestClient ollama = RestClient.builder().baseUrl(url).requestFactory(requestFactory).build();
+        String system = (String) ReflectionTestUtils.getField(FitnessChatClientConfig.class, "FITNESS_SYSTEM_PROMPT");
+
+        Prefill legacy = measure(ollama, model, system, PromptPrefixBenchmarkTest::legacyPrompt);
+        Prefill current = measure(ollama, model, system, PromptPrefixBenchmarkTest::currentPrompt);
+
+        logger.info("Prefill per complete-plan request on {} - user data first: {} ms / {} tokens evaluated, "
+                        + "instructions first: {} ms / {} tokens evaluated",
+                model, String.format("%.1f", legacy.avgMillis()), String.format("%.0f", legacy.avgTokens()),
+                String.format("%.1f", current.avgMillis()), String.format("%.0f", current.avgTokens()));
+        assertThat(current.avgMillis()).isLessThan(legacy.avgMillis());
+    }
+
+    /**
+     * Cycle through the users a few times; the first call only loads the cache and is not counted
+     */
+    private static Prefill measure(RestClient ollama, String model, String system, Function<String[], String> layout) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        chat(ollama, model, system, layout.apply(USERS.get(USERS.size() - 1)));
+        for (int round = 0; round < 3; round++) {
+            for (String[] user : USERS) {
+                results.add(chat(ollama, model, system, layout.apply(user)));
+            }
+        }
+        // Ollama leaves the prompt_eval fields out when the whole prompt came from the cache
+        double millis = results.stream().mapToLong(r -> ((Number) r.getOrDefault("prompt_eval_duration", 0)).longValue())
+                .average().orElse(0) / 1_000_000.0;
+        double tokens = results.stream().mapToLong(r -> ((Number) r.getOrDefault("prompt_eval_count", 0)).longValue())
+                .average().orElse(0);
+        return new Prefill(millis, tokens);
+    }
+
+    private static Map<String, Object> chat(RestClient ollama, String model, String system, String prompt) {
+        return ollama.post().uri("/api/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of(
+                        "model", model,
+                        "stream", false,
+                        "options", Map.of("num_predict", 1, "temperature", 0),
+                        "messages", List.of(
+                                Map.of("role", "system", "content", system),
+                                Map.of("role", "user", "content", prompt))))
+                .retrieve()
+                .body(new ParameterizedTypeReference<Map<String, Object>>() { });
+    }
+
+    /**
+     * The complete-plan prompt exactly as FitnessAiService builds it today
+     */
+    @SuppressWarnings("unchecked")
+    private static String currentPrompt(String[] user) {
+        ChatClient chatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        when(chatClient.prompt(anyString()).advisors(any(Consumer.class)).call().content()).thenReturn("plan");
+        FitnessAiService service = new FitnessAiService(chatClient);
+        ReflectionTestUtils.setField(service, "observationRegistry", ObservationRegistry.NOOP);
+
+        service.getCompleteFitnessPlan(user[0], user[1], user[2], user[3], user[4],
+                user[5], user[6], user[7], user[8], user[9], null);
+
+        // the deep-stubbing call above is recorded too; the service's call is the last one
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(chatClient, atLeastOnce()).prompt(prompt.capture());
+        return prompt.getValue();
+    }
+
+    /**
+     * The layout before the change: a user-specific opening, the user's details, then the instructions
+     */
+    private static String legacyPrompt(String[] user) {
+        String instructions = (String) ReflectionTestUtils.getField(FitnessAiService.class, "COMPLETE_PLAN_INSTRUCTIONS");
+        return "Create a COMPLETE and COMPREHENSIVE fitness plan for me with the following details:\n\n"
+                + "=== PERSONAL INFORMATION ===\n"
+                + "Goal: " + user[0] + "\n"
+                + "Experience Level: " + user[1] + "\n"
+                + "Age: " + user[5] + "\n"
+                + "Gender: " + user[6] + "\n"
+                + "Current Weight: " + user[7] + "\n"
+                + "Target Weight: " + user[8] + "\n"
+                + "Height: " + user[9] + "\n"
+                + "\n=== REQUIREMENTS ===\n"
+                + "Training Days per Week: " + user[2] + "\n"
+                + "Target Daily Calories: " + user[3] + "\n"
+                + "Dietary Preference: " + user[4] + "\n\n"
+                + instructions.substring(instructions.indexOf("Please provide"));
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private record Prefill(double avgMillis, double avgTokens) {}
+}
@@ -0,0 +1,244 @@
+package com.spring.ollama.service;
+
+import com.spring.ollama.config.InMemorySpanExporterConfig.InMemorySpanExporter;
+import com.spring.ollama.config.MailConfig;
+import com.spring.ollama.config.WhatsAppClientConfig;
+import com.spring.ollama.dto.CompleteFitnessPlanRequest;
+import com.spring.ollama.dto.ScheduledReportRequest;
+import com.spring.ollama.support.StubHttpServer;
+import com.spring.ollama.support.StubHttpServer.Response;
+import com.spring.ollama.support.StubSmtpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Span structure of a scheduled report run (generate -> PDF -> delivery), exported to the
+ * in-memory exporter through the same Micrometer Tracing -> OpenTelemetry bridge the app uses.
+ * The LLM is mocked; SMTP and the Graph API are local stubs.
+ */
+class ReportPipelineTracingTest {
+
+    private static final AttributeKey<String> CHANNEL = AttributeKey.stringKey("channel");
+    private static final AttributeKey<String> SCHEDULE_ID = AttributeKey.stringKey("schedule.id");
+
+    @TempDir
+    Path tempDir;
+
+    private final InMemorySpanExporter exporter = new InMemorySpanExporter(1_000);
+    private SdkTracerProvider tracerProvider;
+    private ObservationRegistry observationRegistry;
+    private OtelTracer tracer;
+
+    private StubSmtpServer smtp;
+    private StubHttpServer graphApi;
+    private ThreadPoolTaskScheduler taskScheduler;
+    private ThreadPoolTaskExecutor mailBatchExecutor;
+    private ThreadPoolTaskExecutor whatsAppBulkExecutor;
+
+    private EmailService emailService;
+    private ReportSchedulerService reportSchedulerService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+        tracer = new OtelTracer(tracerProvider.get("test"), currentTraceContext, event -> { },
+                new OtelBaggageManager(currentTraceContext, Collections.emptyList(), Collections.emptyList()));
+        observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultTracingObservationHandler(tracer));
+
+        smtp = new StubSmtpServer(0);
+        graphApi = new StubHttpServer();
+        graphApi.respondWith(request -> Response.json(request.path().endsWith("/media") ? "{\"id\":\"media-1\"}" : "{}"));
+
+        ChatClient chatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        when(chatClient.prompt(anyString()).advisors(any(Consumer.class)).call().content())
+                .thenReturn("WORKOUT PLAN:\nDay 1 - Squats 3x10\nMEAL PLAN:\nOats\nSUPPLEMENT RECOMMENDATIONS:\nCreatine");
+        FitnessAiService fitnessAiService = new FitnessAiService(chatClient);
+        ReflectionTestUtils.setField(fitnessAiService, "observationRegistry", observationRegistry);
+
+        PdfGeneratorService pdfGeneratorService = new PdfGeneratorService();
+        ReflectionTestUtils.setField(pdfGeneratorService, "pdfOutputPath", tempDir.toString());
+        ReflectionTestUtils.setField(pdfGeneratorService, "observationRegistry", observationRegistry);
+
+        emailService = newEmailService();
+        WhatsAppService whatsAppService = newWhatsAppService();
+
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setThreadNamePrefix("report-test-");
+        taskScheduler.initialize();
+
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("tracer", tracer));
+        reportSchedulerService = new ReportSchedulerService(taskScheduler, fitnessAiService, pdfGeneratorService,
+                emailService, whatsAppService, observationRegistry, beans.getBeanProvider(Tracer.class));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        taskScheduler.shutdown();
+        mailBatchExecutor.shutdown();
+        whatsAppBulkExecutor.shutdown();
+        graphApi.close();
+        smtp.close();
+        tracerProvider.close();
+    }
+
+    @Test
+    void scheduledRunIsOneTraceWithAChildSpanPerStage() throws Exception {
+        String scheduleId = reportSchedulerService.scheduleOneTimeReport(oneTimeReport());
+        SpanData root = awaitSpan("fitness.report");
+
+        // the email was only queued by the run; the flush happens later on another thread
+        assertThat(smtp.messages()).isEmpty();
+        emailService.flushScheduledReportEmails();
+
+        List<SpanData> trace = exporter.getFinishedSpans(root.getTraceId());
+        assertThat(root.getParentSpanContext().isValid()).as("a schedule run starts its own trace").isFalse();
+        assertThat(root.getAttributes().get(SCHEDULE_ID)).isEqualTo(scheduleId);
+
+        assertThat(childrenOf(root, trace)).extracting(SpanData::getName)
+                .contains("fitness.plan.generate", "fitness.pdf.render", "fitness.delivery");
+
+        SpanData whatsAppDelivery = delivery(trace, "whatsapp");
+        assertThat(whatsAppDelivery.getParentSpanId()).isEqualTo(root.getSpanId());
+        assertThat(childrenOf(whatsAppDelivery, trace)).as("Graph API client calls").isNotEmpty();
+
+        SpanData emailDelivery = delivery(trace, "email");
+        assertThat(emailDelivery.getParentSpanId()).isEqualTo(root.getSpanId());
+        assertThat(emailDelivery.getAttributes().get(SCHEDULE_ID)).isEqualTo(scheduleId);
+        assertThat(smtp.messages()).hasSize(1);
+    }
+
+    @Test
+    void failedEmailDeliveryIsMarkedOnItsSpan() throws Exception {
+        smtp.close(); // nothing listening - the batch send fails
+
+        reportSchedulerService.scheduleOneTimeReport(oneTimeReport());
+        SpanData root = awaitSpan("fitness.report");
+        emailService.flushScheduledReportEmails();
+
+        SpanData emailDelivery = delivery(exporter.getFinishedSpans(root.getTraceId()), "email");
+        assertThat(emailDelivery.getStatus().getStatusCode())
+                .isEqualTo(StatusCode.ERROR);
+    }
+
+    private ScheduledReportRequest oneTimeReport() {
+        CompleteFitnessPlanRequest plan = new CompleteFitnessPlanRequest();
+        plan.setGoal("muscle gain");
+        plan.setExperience("beginner");
+        plan.setDaysPerWeek("4");
+
+        ScheduledReportRequest request = new ScheduledReportRequest();
+        request.setScheduleType("ONE_TIME");
+        request.setScheduledDateTime(LocalDateTime.now());
+        request.setPlanRequest(plan);
+        request.setReportName("Traced Report");
+        request.setGeneratePdf(true);
+        request.setSendEmail(true);
+        request.setEmail("user@fitness.test");
+        request.setSendWhatsApp(true);
+        request.setWhatsappNumber("919876543210");
+        return request;
+    }
+
+    private SpanData awaitSpan(String name) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            for (SpanData span : exporter.getFinishedSpans()) {
+                if (span.getName().equals(name)) {
+                    return span;
+                }
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("No finished span named " + name);
+    }
+
+    private List<SpanData> childrenOf(SpanData parent, List<SpanData> trace) {
+        return trace.stream().filter(span -> span.getParentSpanId().equals(parent.getSpanId())).toList();
+    }
+
+    private SpanData delivery(List<SpanData> trace, String channel) {
+        return trace.stream()
+                .filter(span -> span.getName().equals("fitness.delivery"))
+                .filter(span -> channel.equals(span.getAttributes().get(CHANNEL)))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No " + channel + " delivery span in trace"));
+    }
+
+    private EmailService newEmailService() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtp.port());
+
+        MailConfig mailConfig = new MailConfig();
+        ReflectionTestUtils.setField(mailConfig, "maxConnections", 1);
+        mailBatchExecutor = mailConfig.mailBatchExecutor();
+
+        EmailTemplateService templates = mock(EmailTemplateService.class);
+        when(templates.renderScheduledReportEmail(anyString())).thenReturn("<p>Your report is ready</p>");
+
+        EmailService service = new EmailService(mailSender, templates, mailBatchExecutor,
+                new SimpleMeterRegistry(), observationRegistry);
+        ReflectionTestUtils.setField(service, "fromEmail", "reports@fitness.test");
+        ReflectionTestUtils.setField(service, "batchSize", 50);
+        return service;
+    }
+
+    private WhatsAppService newWhatsAppService() {
+        WhatsAppClientConfig config = new WhatsAppClientConfig();
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 2_000L);
+        ReflectionTestUtils.setField(config, "readTimeoutMs", 5_000L);
+        ReflectionTestUtils.setField(config, "bulkConcurrency", 2);
+        whatsAppBulkExecutor = config.whatsAppBulkExecutor();
+
+        WhatsAppService service = new WhatsAppService(
+                config.whatsAppRestTemplate(config.whatsAppHttpClient(), observationRegistry),
+                whatsAppBulkExecutor, new SimpleMeterRegistry(), observationRegistry,
+                5, 60_000, 1_000, 1_000, 60_000);
+        ReflectionTestUtils.setField(service, "whatsappApiUrl", graphApi.baseUrl() + "/v18.0");
+        ReflectionTestUtils.setField(service, "phoneNumberId", "PHONE_ID");
+        ReflectionTestUtils.setField(service, "accessToken", "test-token");
+        ReflectionTestUtils.setField(service, "whatsappEnabled", true);
+        ReflectionTestUtils.setField(service, "maxAttempts", 1);
+        ReflectionTestUtils.setField(service, "initialBackoffMs", 10L);
+        ReflectionTestUtils.setField(service, "maxBackoffMs", 50L);
+        return service;
+    }
+}
@@ -0,0 +1,158 @@
+package com.spring.ollama.service;
+
+import com.spring.ollama.config.WhatsAppClientConfig;
+import com.spring.ollama.dto.BulkWhatsAppResult;
+import com.spring.ollama.support.StubHttpServer;
+import com.spring.ollama.support.StubHttpServer.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk fitness plan sends against a local stub of the Graph API: one upload, pacing, 429 retries
+ * and the per-recipient report
+ */
+class WhatsAppBulkSendTest {
+
+    private static final String MEDIA_UPLOADED = "{\"id\":\"media-1\"}";
+
+    @TempDir
+    Path tempDir;
+
+    private StubHttpServer graphApi;
+    private ThreadPoolTaskExecutor bulkExecutor;
+    private String pdfPath;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        graphApi = new StubHttpServer();
+        graphApi.respondWith(request -> Response.json(request.path().endsWith("/media") ? MEDIA_UPLOADED : "{}"));
+        pdfPath = Files.write(tempDir.resolve("plan.pdf"), "%PDF-1.4 test".getBytes()).toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (bulkExecutor != null) {
+            bulkExecutor.shutdown();
+        }
+        graphApi.close();
+    }
+
+    @Test
+    void uploadsOnceAndReportsEveryRecipient() throws Exception {
+        WhatsAppService service = newService(1_000, 1_000);
+        List<String> recipients = recipients(20);
+
+        BulkWhatsAppResult job = awaitCompletion(service,
+                service.startBulkFitnessPlanNotification(recipients, "Week 1", pdfPath));
+
+        assertThat(job.getSuccessCount()).isEqualTo(20);
+        assertThat(job.getFailureCount()).isZero();
+        assertThat(job.getResults()).extracting(BulkWhatsAppResult.RecipientResult::getPhoneNumber)
+                .containsExactlyInAnyOrderElementsOf(recipients);
+        assertThat(graphApi.requests("/media")).hasSize(1);
+        // intro text, document and follow-up per recipient
+        assertThat(graphApi.requests("/messages")).hasSize(60);
+    }
+
+    @Test
+    void retriesThrottledMessagesHonouringRetryAfter() throws Exception {
+        AtomicInteger throttled = new AtomicInteger(3);
+        graphApi.respondWith(request -> {
+            if (request.path().endsWith("/media")) {
+                return Response.json(MEDIA_UPLOADED);
+            }
+            return throttled.getAndDecrement() > 0
+                    ? Response.status(429).withHeader("Retry-After", "0")
+                    : Response.json("{}");
+        });
+        WhatsAppService service = newService(1_000, 1_000);
+
+        BulkWhatsAppResult job = awaitCompletion(service,
+                service.startBulkFitnessPlanNotification(recipients(5), "Week 1", pdfPath));
+
+        assertThat(job.getSuccessCount()).isEqualTo(5);
+        assertThat(graphApi.requests("/messages")).hasSize(15 + 3);
+    }
+
+    @Test
+    void pacesMessagesToTheConfiguredRate() throws Exception {
+        WhatsAppService service = newService(20, 1);
+
+        long start = System.nanoTime();
+        BulkWhatsAppResult job = awaitCompletion(service,
+                service.startBulkFitnessPlanNotification(recipients(10), "Week 1", pdfPath));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // 30 messages at 20/s with a burst of one cannot finish in under ~1.45 s
+        assertThat(job.getSuccessCount()).isEqualTo(10);
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(1_300);
+    }
+
+    @Test
+    void failedUploadIsReportedPerRecipient() throws Exception {
+        graphApi.respondWith(request -> request.path().endsWith("/media") ? Response.status(400) : Response.json("{}"));
+        WhatsAppService service = newService(1_000, 1_000);
+
+        BulkWhatsAppResult job = awaitCompletion(service,
+                service.startBulkFitnessPlanNotification(recipients(3), "Week 1", pdfPath));
+
+        assertThat(job.getFailureCount()).isEqualTo(3);
+        assertThat(job.getResults()).allSatisfy(result -> {
+            assertThat(result.isTextSent()).isTrue();
+            assertThat(result.isDocumentSent()).isFalse();
+            assertThat(result.getError()).isEqualTo("PDF upload failed");
+        });
+    }
+
+    private BulkWhatsAppResult awaitCompletion(WhatsAppService service, BulkWhatsAppResult started)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 20_000;
+        BulkWhatsAppResult job = started;
+        while (!BulkWhatsAppResult.STATUS_COMPLETED.equals(job.getStatus())) {
+            assertThat(System.currentTimeMillis()).as("bulk job finished in time").isLessThan(deadline);
+            Thread.sleep(20);
+            job = service.getBulkJob(started.getJobId());
+        }
+        return job;
+    }
+
+    private List<String> recipients(int count) {
+        return IntStream.range(0, count).mapToObj(i -> String.format("91987650%04d", i)).toList();
+    }
+
+    private WhatsAppService newService(double messagesPerSecond, int burst) {
+        WhatsAppClientConfig config = new WhatsAppClientConfig();
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 2_000L);
+        ReflectionTestUtils.setField(config, "readTimeoutMs", 5_000L);
+        ReflectionTestUtils.setField(config, "bulkConcurrency", 8);
+        bulkExecutor = config.whatsAppBulkExecutor();
+
+        WhatsAppService service = new WhatsAppService(
+                config.whatsAppRestTemplate(config.whatsAppHttpClient(), ObservationRegistry.NOOP),
+                bulkExecutor, new SimpleMeterRegistry(), ObservationRegistry.NOOP,
+                100, 60_000, messagesPerSecond, burst, 60_000);
+        ReflectionTestUtils.setField(service, "whatsappApiUrl", graphApi.baseUrl() + "/v18.0");
+        ReflectionTestUtils.setField(service, "phoneNumberId", "PHONE_ID");
+        ReflectionTestUtils.setField(service, "accessToken", "test-token");
+        ReflectionTestUtils.setField(service, "whatsappEnabled", true);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "initialBackoffMs", 10L);
+        ReflectionTestUtils.setField(service, "maxBackoffMs", 50L);
+        ReflectionTestUtils.setField(service, "maxBulkRecipients", 1_000);
+        return service;
+    }
+}
@@ -0,0 +1,125 @@
+package com.spring.ollama.service;
+
+import com.spring.ollama.config.WhatsAppClientConfig;
+import com.spring.ollama.support.StubHttpServer;
+import com.spring.ollama.support.StubHttpServer.Response;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * WhatsAppService on the pooled Graph API client, against a local stub of the Graph API
+ */
+class WhatsAppServiceHttpClientTest {
+
+    private StubHttpServer graphApi;
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor bulkExecutor;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        graphApi = new StubHttpServer();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void stopStub() {
+        if (bulkExecutor != null) {
+            bulkExecutor.shutdown();
+        }
+        graphApi.close();
+    }
+
+    @Test
+    void reusesKeepAliveConnectionsAcrossSequentialMessages() {
+        WhatsAppService service = newService(15_000, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(service.sendTextMessage("9876543210", "message " + i)).isTrue();
+        }
+
+        assertThat(graphApi.requests("/messages")).hasSize(5)
+                .allSatisfy(request -> {
+                    assertThat(request.path()).isEqualTo("/v18.0/PHONE_ID/messages");
+                    assertThat(request.header("Authorization")).isEqualTo("Bearer test-token");
+                    assertThat(request.body()).contains("\"to\":\"919876543210\"");
+                });
+        // the first request may go out on its own connection while the client tries the h2c upgrade
+        assertThat(graphApi.requests().stream().map(StubHttpServer.Request::remotePort).collect(Collectors.toSet()))
+                .as("keep-alive connections reused")
+                .hasSizeLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void recordsLatencyPerEndpointAndStatus() {
+        WhatsAppService service = newService(15_000, 5);
+
+        service.sendTextMessage("919876543210", "hello");
+        graphApi.respondWith(request -> Response.status(400));
+        service.sendTextMessage("919876543210", "hello");
+
+        Timer ok = meterRegistry.find("whatsapp.api.requests").tag("endpoint", "messages").tag("status", "200").timer();
+        Timer badRequest = meterRegistry.find("whatsapp.api.requests").tag("endpoint", "messages").tag("status", "400").timer();
+        assertThat(ok).isNotNull();
+        assertThat(ok.count()).isEqualTo(1);
+        assertThat(badRequest).isNotNull();
+        assertThat(badRequest.count()).isEqualTo(1);
+    }
+
+    @Test
+    void hungCallIsCutOffByTheReadTimeout() {
+        WhatsAppService service = newService(300, 5);
+        graphApi.respondWith(request -> Response.json("{}").withDelay(5_000));
+
+        long start = System.nanoTime();
+        boolean sent = service.sendTextMessage("919876543210", "hello");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(sent).isFalse();
+        assertThat(elapsedMs).isLessThan(3_000);
+    }
+
+    @Test
+    void circuitBreakerStopsCallingAfterConsecutiveServerErrors() {
+        WhatsAppService service = newService(15_000, 3);
+        graphApi.respondWith(request -> Response.status(503));
+
+        for (int i = 0; i < 6; i++) {
+            assertThat(service.sendTextMessage("919876543210", "hello")).isFalse();
+        }
+
+        assertThat(graphApi.requests("/messages")).hasSize(3);
+    }
+
+    private WhatsAppService newService(long readTimeoutMs, int breakerThreshold) {
+        WhatsAppClientConfig config = new WhatsAppClientConfig();
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 2_000L);
+        ReflectionTestUtils.setField(config, "readTimeoutMs", readTimeoutMs);
+        ReflectionTestUtils.setField(config, "bulkConcurrency", 4);
+
+        RestTemplate restTemplate = config.whatsAppRestTemplate(config.whatsAppHttpClient(), ObservationRegistry.NOOP);
+        bulkExecutor = config.whatsAppBulkExecutor();
+
+        WhatsAppService service = new WhatsAppService(restTemplate, bulkExecutor, meterRegistry,
+                ObservationRegistry.NOOP, breakerThreshold, 60_000, 1_000, 1_000, 60_000);
+        ReflectionTestUtils.setField(service, "whatsappApiUrl", graphApi.baseUrl() + "/v18.0");
+        ReflectionTestUtils.setField(service, "phoneNumberId", "PHONE_ID");
+        ReflectionTestUtils.setField(service, "accessToken", "test-token");
+        ReflectionTestUtils.setField(service, "whatsappEnabled", true);
+        ReflectionTestUtils.setField(service, "maxAttempts", 1);
+        ReflectionTestUtils.setField(service, "initialBackoffMs", 10L);
+        ReflectionTestUtils.setField(service, "maxBackoffMs", 50L);
+        ReflectionTestUtils.setField(service, "maxBulkRecipients", 1_000);
+        return service;
+    }
+}
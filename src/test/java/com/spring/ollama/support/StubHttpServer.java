@@ -0,0 +1,134 @@
+package com.spring.ollama.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * WireMock-style local HTTP stub on an ephemeral port. Every request is recorded; the response
+ * comes from a replaceable responder so a test can script errors, throttling and slow replies.
+ */
+public class StubHttpServer implements AutoCloseable {
+
+    public record Request(String method, String path, Map<String, List<String>> headers, String body, int remotePort) {
+
+        public String header(String name) {
+            return headers.entrySet().stream()
+                    .filter(entry -> entry.getKey().equalsIgnoreCase(name))
+                    .map(entry -> entry.getValue().get(0))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    public record Response(int status, String body, Map<String, String> headers, long delayMs) {
+
+        public static Response json(String body) {
+            return new Response(200, body, Map.of(), 0);
+        }
+
+        public static Response status(int status) {
+            return new Response(status, "{}", Map.of(), 0);
+        }
+
+        public Response withHeader(String name, String value) {
+            Map<String, String> merged = new HashMap<>(headers);
+            merged.put(name, value);
+            return new Response(status, body, Map.copyOf(merged), delayMs);
+        }
+
+        public Response withDelay(long millis) {
+            return new Response(status, body, headers, millis);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Responder {
+        Response respond(Request request) throws Exception;
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private volatile Responder responder = request -> Response.json("{}");
+    private volatile boolean closed;
+
+    public StubHttpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public void respondWith(Responder responder) {
+        this.responder = responder;
+    }
+
+    public List<Request> requests() {
+        return List.copyOf(requests);
+    }
+
+    public List<Request> requests(String pathSuffix) {
+        return requests.stream().filter(request -> request.path().endsWith(pathSuffix)).toList();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Request request = new Request(
+                    exchange.getRequestMethod(),
+                    exchange.getRequestURI().getPath(),
+                    Map.copyOf(exchange.getRequestHeaders()),
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8),
+                    exchange.getRemoteAddress().getPort());
+            requests.add(request);
+
+            Response response;
+            try {
+                response = responder.respond(request);
+            } catch (Exception e) {
+                response = new Response(500, "{\"error\":\"" + e.getMessage() + "\"}", Map.of(), 0);
+            }
+
+            if (response.delayMs() > 0) {
+                Thread.sleep(response.delayMs());
+            }
+
+            byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            response.headers().forEach(exchange.getResponseHeaders()::set);
+            exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+            if (body.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
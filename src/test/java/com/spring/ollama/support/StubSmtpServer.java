@@ -0,0 +1,119 @@
+package com.spring.ollama.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GreenMail-style local SMTP sink on an ephemeral port. Speaks just enough SMTP for Jakarta Mail
+ * (EHLO, MAIL, RCPT, DATA, RSET, NOOP, QUIT), records each message and counts connections.
+ * A session setup delay stands in for the TLS handshake and AUTH round trips of a real server.
+ */
+public class StubSmtpServer implements AutoCloseable {
+
+    public record ReceivedMessage(int connection, List<String> recipients, String data) {}
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<ReceivedMessage> messages = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final long sessionSetupDelayMs;
+
+    public StubSmtpServer(long sessionSetupDelayMs) throws IOException {
+        this.sessionSetupDelayMs = sessionSetupDelayMs;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor.execute(this::acceptLoop);
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    public List<ReceivedMessage> messages() {
+        return List.copyOf(messages);
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                int connection = connections.incrementAndGet();
+                executor.execute(() -> handle(socket, connection));
+            } catch (IOException e) {
+                return; // closed
+            }
+        }
+    }
+
+    private void handle(Socket socket, int connection) {
+        try (socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = socket.getOutputStream();
+
+            Thread.sleep(sessionSetupDelayMs);
+            reply(out, "220 stub-smtp ready");
+
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 stub-smtp");
+                    case "MAIL" -> {
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        recipients.add(line.substring(line.indexOf(':') + 1).trim());
+                        reply(out, "250 OK");
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        String dataLine;
+                        while ((dataLine = in.readLine()) != null && !dataLine.equals(".")) {
+                            data.append(dataLine).append('\n');
+                        }
+                        messages.add(new ReceivedMessage(connection, List.copyOf(recipients), data.toString()));
+                        reply(out, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK"); // RSET, NOOP
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+}